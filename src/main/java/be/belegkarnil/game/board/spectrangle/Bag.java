@@ -96,6 +96,24 @@ public class Bag implements Cloneable{
 		Collections.shuffle(content, this.random);
 	}
 
+	/**
+	 * Replace the content of the bag (see {@link GameState})
+	 *
+	 * @param pieces the {@link Piece}s in the order they will be taken
+	 */
+	protected void restore(Piece[] pieces){
+		this.content = new ArrayList<Piece>(List.of(pieces));
+	}
+
+	/**
+	 * Get the content of the bag in the order the {@link Piece}s will be taken
+	 *
+	 * @return An array of {@link Piece}s
+	 */
+	protected Piece[] getContent(){
+		return content.toArray(new Piece[content.size()]);
+	}
+
 	/**
 	 * Take one {@link Piece} from the bag
 	 *
@@ -26,14 +26,21 @@ import java.awt.Window;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.HashSet;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Enumeration;
 import java.util.Comparator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * This class is the main class that run the game with GUI.
@@ -43,37 +50,78 @@ import java.util.Set;
 public class BelegSpectrangle{
 	private static final Set<Class<? extends Strategy>> strategies = new HashSet<Class<? extends Strategy>>();
 
-	public static void loadStrategies() throws IOException, ClassNotFoundException{
-		loadStrategies(BelegSpectrangle.class.getPackageName());
+	/**
+	 * Load the strategies declared as services of {@link Strategy} (META-INF/services) in the classpath, directories and jars.
+	 * The classes are only loaded, neither initialized nor instantiated.
+	 */
+	public static void loadStrategies(){
+		loadStrategies(Thread.currentThread().getContextClassLoader());
 	}
 
+	/**
+	 * Load the strategies declared as services of {@link Strategy} (META-INF/services) visible from a class loader
+	 *
+	 * @param classLoader the class loader that finds the service files and loads the classes
+	 */
+	public static void loadStrategies(ClassLoader classLoader){
+		final Iterator<ServiceLoader.Provider<Strategy>> providers = ServiceLoader.load(Strategy.class, classLoader).stream().iterator();
+		while(true){
+			try{
+				if(!providers.hasNext()) break;
+				final Class<? extends Strategy> klass = providers.next().type();
+				if(hasDefaultConstructor(klass)) strategies.add(klass);
+			}catch(ServiceConfigurationError e){
+				e.printStackTrace(); // a wrong declaration does not hide the next ones
+			}
+		}
+	}
+
+	/**
+	 * Load the strategies of a package (and its sub-packages) that are not declared as services, in directories and jars.
+	 * The classes are only loaded, neither initialized nor instantiated.
+	 *
+	 * @param packageName the name of the package
+	 * @throws IOException            if a directory or a jar cannot be read
+	 * @throws ClassNotFoundException if a listed class cannot be found
+	 */
 	public static void loadStrategies(final String packageName) throws IOException, ClassNotFoundException{
-		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-		Enumeration<URL> resources = classLoader.getResources(packageName.replace(".", "/"));
-		java.util.List<File> dirs = new ArrayList<File>();
+		final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		final String path = packageName.replace('.', '/');
+		final Enumeration<URL> resources = classLoader.getResources(path);
+		final java.util.List<String> names = new ArrayList<String>();
 		while(resources.hasMoreElements()){
-			URL resource = resources.nextElement();
-			dirs.add(new File(resource.getFile()));
-		}
-		ArrayList<Class> classes = new ArrayList<Class>();
-		for(File directory : dirs){
-			classes.addAll(findClasses(directory, packageName));
+			final URL resource = resources.nextElement();
+			if("jar".equals(resource.getProtocol())){
+				findClasses((JarURLConnection) resource.openConnection(), path, names);
+			}else if("file".equals(resource.getProtocol())){
+				try{
+					findClasses(new File(resource.toURI()), packageName, names);
+				}catch(URISyntaxException e){
+					findClasses(new File(resource.getFile()), packageName, names);
+				}
+			}
 		}
-		for(Class<?> klass : classes){
+		for(String name : names){
+			final Class<?> klass;
+			try{
+				klass = Class.forName(name, false, classLoader);
+			}catch(LinkageError e){
+				continue; // e.g. a missing dependency of a class that is not a strategy
+			}
 			if(isStrategy(klass) && hasDefaultConstructor(klass)){
-				strategies.add((Class<Strategy>) klass);
+				strategies.add(klass.asSubclass(Strategy.class));
 			}
 		}
 	}
 
+	/**
+	 * Know if a class is a concrete strategy
+	 *
+	 * @param klass the class
+	 * @return true iff the class implements {@link Strategy} and is neither an interface nor abstract
+	 */
 	public static boolean isStrategy(Class klass){
-		Class<?>[] interfaces = klass.getInterfaces();
-		for(Class<?> inter : interfaces){
-			if(inter.getName().equals(Strategy.class.getName())) return true;
-		}
-		Class<?> superclass = klass.getSuperclass();
-		if(superclass != null && superclass.getName().equals(StrategyAdapter.class.getName())) return true;
-		return false;
+		return Strategy.class.isAssignableFrom(klass) && !klass.isInterface() && !Modifier.isAbstract(klass.getModifiers());
 	}
 
 	public static java.util.List<Constructor<Strategy>> constructorOnlyWith(Class<Strategy> klass, java.util.List<Class> classes){
@@ -98,37 +146,54 @@ public class BelegSpectrangle{
 		return results;
 	}
 
+	/**
+	 * Know if a class can be instantiated without arguments, without running any constructor
+	 *
+	 * @param klass the class
+	 * @return true iff the class is public, concrete and has a public constructor without parameters
+	 */
 	public static boolean hasDefaultConstructor(Class klass){
+		if(!Modifier.isPublic(klass.getModifiers()) || Modifier.isAbstract(klass.getModifiers())) return false;
 		try{
-			Constructor<Strategy> constructor = klass.getConstructor();
-			constructor.newInstance();
+			klass.getConstructor();
 		}catch(NoSuchMethodException e){
 			return false;
-		}catch(InvocationTargetException e){
-			return false;
-		}catch(InstantiationException e){
-			return false;
-		}catch(IllegalAccessException e){
+		}catch(LinkageError e){
 			return false;
 		}
 		return true;
 	}
 
-	private static java.util.List<Class> findClasses(File directory, String packageName) throws ClassNotFoundException{
-		java.util.List<Class> classes = new ArrayList<Class>();
+	private static void findClasses(File directory, String packageName, java.util.List<String> names){
 		if(!directory.exists()){
-			return classes;
+			return;
 		}
 		File[] files = directory.listFiles();
 		for(File file : files){
 			if(file.isDirectory()){
 				assert !file.getName().contains(".");
-				classes.addAll(findClasses(file, packageName + "." + file.getName()));
-			}else if(file.getName().endsWith(".class")){
-				classes.add(Class.forName(packageName + '.' + file.getName().substring(0, file.getName().length() - 6)));
+				findClasses(file, packageName + "." + file.getName(), names);
+			}else if(isClassFile(file.getName())){
+				names.add(packageName + '.' + file.getName().substring(0, file.getName().length() - 6));
+			}
+		}
+	}
+
+	private static void findClasses(JarURLConnection connection, String path, java.util.List<String> names) throws IOException{
+		connection.setUseCaches(false);
+		try(JarFile jar = connection.getJarFile()){
+			final Enumeration<JarEntry> entries = jar.entries();
+			while(entries.hasMoreElements()){
+				final String name = entries.nextElement().getName();
+				if(name.startsWith(path + '/') && isClassFile(name)){
+					names.add(name.substring(0, name.length() - 6).replace('/', '.'));
+				}
 			}
 		}
-		return classes;
+	}
+
+	private static boolean isClassFile(String name){
+		return name.endsWith(".class") && !name.endsWith("package-info.class") && !name.endsWith("module-info.class");
 	}
 
 	public static Class<? extends Strategy>[] listStrategies(){
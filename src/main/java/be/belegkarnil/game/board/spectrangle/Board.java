@@ -57,11 +57,18 @@ public class Board implements Cloneable{
 	 * The default reference board size
 	 */
 	public static final int DEFAULT_SIZE = 6;
+	/**
+	 * is the mask of all the pieces (see {@link Board#getPlacedPieces()})
+	 */
+	public static final long ALL_PIECES = (1L << Piece.values().length) - 1;
 
 	private boolean firstMove;
 	private Color[][][] grid;
 	private int[][] values;
 	private int[][] factors;
+	private Piece[][] pieces;
+	private int[][] rotations;
+	private long placed;
 	private final int SIZE;
 
 	/**
@@ -96,10 +103,13 @@ public class Board implements Cloneable{
 	protected Board(Board board) throws CloneNotSupportedException{
 		this((Bag) board.bag.clone(), board.SIZE);
 		this.firstMove = board.firstMove;
+		this.placed = board.placed;
 		for(int row = 0; row < board.countRows(); row++){
 			for(int column = 0; column < board.countColumns(row); column++){
 				this.factors[row][column] = board.factors[row][column];
 				this.values[row][column] = board.values[row][column];
+				this.pieces[row][column] = board.pieces[row][column];
+				this.rotations[row][column] = board.rotations[row][column];
 				for(int color = 0; color < board.grid[row][column].length; color++){
 					this.grid[row][column][color] = board.grid[row][column][color];
 				}
@@ -114,6 +124,8 @@ public class Board implements Cloneable{
 		grid = new Color[2 * size - 1][][];
 		values = new int[2 * size - 1][];
 		factors = new int[2 * size - 1][];
+		pieces = new Piece[2 * size - 1][];
+		rotations = new int[2 * size - 1][];
 
 		int rowCounter = 0;
 		int y = 0;
@@ -122,12 +134,16 @@ public class Board implements Cloneable{
 			grid[y] = new Color[rowCounter][3];
 			values[y] = new int[rowCounter];
 			factors[y] = new int[rowCounter];
+			pieces[y] = new Piece[rowCounter];
+			rotations[y] = new int[rowCounter];
 		}
 		for(; y < grid.length; y++){
 			rowCounter--;
 			grid[y] = new Color[rowCounter][3];
 			values[y] = new int[rowCounter];
 			factors[y] = new int[rowCounter];
+			pieces[y] = new Piece[rowCounter];
+			rotations[y] = new int[rowCounter];
 		}
 	}
 
@@ -139,11 +155,15 @@ public class Board implements Cloneable{
 		for(int y = 0; y < grid.length; y++){
 			Arrays.fill(values[y], NO_VALUE);
 			Arrays.fill(factors[y], NO_BONUS);
+			Arrays.fill(pieces[y], null);
+			Arrays.fill(rotations[y], 0);
 			for(int x = 0; x < grid[y].length; x++){
 				Arrays.fill(grid[y][x], null);
 			}
 		}
 
+		placed = 0;
+
 		factors[1][0] = 3;
 		factors[3][2] = 2;
 		factors[4][2] = 4;
@@ -157,6 +177,41 @@ public class Board implements Cloneable{
 		firstMove = true;
 	}
 
+	/**
+	 * Reset the board, then put the given pieces without scoring (see {@link GameState}). The bag content has to be restored afterwards.
+	 *
+	 * @param cells     the piece of each cell (row by row, null for a free cell)
+	 * @param rotations the rotation of each piece (row by row)
+	 */
+	protected void restore(Piece[] cells, int[] rotations){
+		reset();
+		int index = 0;
+		for(int y = 0; y < grid.length; y++){
+			for(int x = 0; x < grid[y].length; x++){
+				final Piece piece = cells[index];
+				if(piece != null){
+					final int rotation = (Action.MAX_ROTATION + (rotations[index] % Action.MAX_ROTATION)) % Action.MAX_ROTATION;
+					this.values[y][x] = piece.value;
+					this.grid[y][x] = applyRotate(piece, rotation);
+					this.pieces[y][x] = piece;
+					this.rotations[y][x] = rotation;
+					this.placed |= 1L << piece.ordinal();
+					firstMove = false;
+				}
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * Count the number of cells (positions) that the board has
+	 *
+	 * @return the number of cells
+	 */
+	public int countCells(){
+		return SIZE * SIZE;
+	}
+
 	/**
 	 * Get the reference size of this board
 	 *
@@ -333,6 +388,9 @@ public class Board implements Cloneable{
 		}
 		this.values[position.y][position.x] = piece.value;
 		this.grid[position.y][position.x] = colors;
+		this.pieces[position.y][position.x] = piece;
+		this.rotations[position.y][position.x] = (rotation == 1 || rotation == 2) ? rotation : 0;
+		this.placed |= 1L << piece.ordinal();
 
 		return corners * piece.value * this.factors[position.y][position.x];
 	}
@@ -486,6 +544,38 @@ public class Board implements Cloneable{
 		return getValue(position.x, position.y);
 	}
 
+	/**
+	 * Get the piece put at a given position
+	 *
+	 * @param x the x-axis (column) position
+	 * @param y the y-axis (row) position
+	 * @return The piece iff exists, otherwise null
+	 */
+	public Piece getPiece(int x, int y){
+		return pieces[y][x];
+	}
+
+	/**
+	 * Get the piece put at a given position
+	 *
+	 * @param position the position on the board
+	 * @return The piece iff exists, otherwise null
+	 */
+	public Piece getPiece(Point position){
+		return getPiece(position.x, position.y);
+	}
+
+	/**
+	 * Get the rotation applied on the piece put at a given position
+	 *
+	 * @param x the x-axis (column) position
+	 * @param y the y-axis (row) position
+	 * @return The rotation (see {@link Board#applyRotate(Piece, int)}), 0 if there are no piece
+	 */
+	public int getRotation(int x, int y){
+		return rotations[y][x];
+	}
+
 	/**
 	 * Get the base color (always consider base triangle at bottom) at a position
 	 *
@@ -558,6 +648,26 @@ public class Board implements Cloneable{
 		return bag;
 	}
 
+	/**
+	 * Get the pieces put on the board, maintained when a piece is placed
+	 *
+	 * @return the mask of the pieces on the board (the bit {@link Piece#ordinal()} is set iff the piece is on the board)
+	 */
+	public long getPlacedPieces(){
+		return placed;
+	}
+
+	/**
+	 * Get the pieces that can still come out of the bag: all the pieces but the pieces on the board and in the hands of the players
+	 *
+	 * @param first  a player
+	 * @param second the other player
+	 * @return the mask of the unseen pieces (the bit {@link Piece#ordinal()} is set iff the piece is unseen)
+	 */
+	public long unseenPieces(Player first, Player second){
+		return ALL_PIECES & ~placed & ~first.getPieceMask() & ~second.getPieceMask();
+	}
+
 	/**
 	 * Know if the board has not yet a {@link Piece} on it
 	 *
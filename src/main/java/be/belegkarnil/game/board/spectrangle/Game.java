@@ -20,11 +20,13 @@
 package be.belegkarnil.game.board.spectrangle;
 
 import be.belegkarnil.game.board.spectrangle.event.*;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
 
 import java.awt.Point;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -56,14 +58,29 @@ public class Game implements Runnable{
 	 * is the scoring penalty if a player can put a {@link Piece} but he does not
 	 */
 	public static final int DEFAULT_SKIP_PENALTY = 30;
+	/**
+	 * is the wall-clock limit of a turn with the CPU time accounting, as a multiple of the timeout, for the strategies that wait without consuming CPU
+	 */
+	public static final int WALL_CLOCK_FACTOR = 4;
+	/**
+	 * is the allocation limit that disables the quota (see {@link Game#setAllocationLimit(long)})
+	 */
+	public static final long NO_ALLOCATION_LIMIT = 0;
+
+	private static final long POLL = 10; // milliseconds between two readings of the CPU time and allocations of a strategy
 
 	private final int timeout, numWinningRounds, skipLimit, skipPenalty;
+	private volatile boolean cpuTimeAccounting;
+	private volatile long allocationLimit;
+	private volatile Watchdog watchdog;
 	private int turn, round;
 	private Player[] players;
-	private List<GameListener> gameListeners;
-	private List<RoundListener> roundListeners;
-	private List<TurnListener> turnListeners;
-	private List<MisdesignListener> misdesignListeners;
+	// copy-on-write arrays: iterating is allocation-free and safe against concurrent add/remove
+	private volatile GameListener[] gameListeners;
+	private volatile RoundListener[] roundListeners;
+	private volatile TurnListener[] turnListeners;
+	private volatile MisdesignListener[] misdesignListeners;
+	private final Object listenersLock;
 	private Board board;
 
 	/**
@@ -98,11 +115,12 @@ public class Game implements Runnable{
 		this.round = 0;
 		this.turn = 0;
 
-		gameListeners = new LinkedList<GameListener>();
-		roundListeners = new LinkedList<RoundListener>();
-		turnListeners = new LinkedList<TurnListener>();
-		misdesignListeners = new LinkedList<MisdesignListener>();
-
+		gameListeners = new GameListener[0];
+		roundListeners = new RoundListener[0];
+		turnListeners = new TurnListener[0];
+		misdesignListeners = new MisdesignListener[0];
+		listenersLock = new Object();
+		watchdog = Watchdog.getDefault();
 	}
 
 	/**
@@ -141,6 +159,15 @@ public class Game implements Runnable{
 		return skipLimit;
 	}
 
+	/**
+	 * Get the scoring penalty of a player that can play but does not
+	 *
+	 * @return the number of points removed
+	 */
+	public int getSkipPenalty(){
+		return skipPenalty;
+	}
+
 	/**
 	 * Get the number of rounds to be won in order to win the game
 	 *
@@ -150,6 +177,85 @@ public class Game implements Runnable{
 		return numWinningRounds;
 	}
 
+	/**
+	 * Choose how the timeout of a turn is enforced: with the wall-clock time (default) or with the CPU time of the threads of the strategy.
+	 * The CPU time is not affected by the load of the machine (other games, garbage collection, scheduling), so concurrent games stay fair.
+	 * The CPU time of a turn is the one of the thread that calls the strategy plus the one of the helper threads created with
+	 * {@link Game#getThreadFactory(Strategy)} during the turn: a strategy that searches on several threads consumes its timeout faster.
+	 * The other threads started by a strategy are not accounted, and a turn is still stopped after {@link Game#WALL_CLOCK_FACTOR} times the timeout of wall-clock time.
+	 * If the JVM does not measure the CPU time of threads, the wall-clock time is used.
+	 *
+	 * @param cpuTimeAccounting true to account the CPU time, false for the wall-clock time
+	 */
+	public void setCpuTimeAccounting(boolean cpuTimeAccounting){
+		this.cpuTimeAccounting = cpuTimeAccounting;
+	}
+
+	/**
+	 * Get the factory of the helper threads of a strategy (e.g. its search threads), so that they are accounted in the turns of its player
+	 * (see {@link Game#setCpuTimeAccounting(boolean)}). The threads are daemon threads.
+	 *
+	 * @param strategy the strategy of a player of the game
+	 * @return the factory of the player, or a factory whose threads are not accounted if the strategy does not play the game
+	 */
+	public ThreadFactory getThreadFactory(Strategy strategy){
+		for(Player player : players){
+			if(player.getStrategy() == strategy) return player.getThreads();
+		}
+		return new StrategyThreads(strategy.getClass().getSimpleName());
+	}
+
+	/**
+	 * Know if the timeout of a turn is enforced with the CPU time of the strategy (see {@link Game#setCpuTimeAccounting(boolean)})
+	 *
+	 * @return true iff the CPU time is accounted and the JVM supports it
+	 */
+	public boolean isCpuTimeAccounting(){
+		return cpuTimeAccounting && StrategyTask.isCpuTimeSupported();
+	}
+
+	/**
+	 * Set the quota of memory that a strategy may allocate during a turn (all the allocations of its thread and of its helper threads created
+	 * with {@link Game#getThreadFactory(Strategy)}, even if they are garbage collected). The other threads started by a strategy are not accounted.
+	 * A strategy that exceeds it loses its turn like on timeout, and {@link MisdesignListener#onAllocationExceeded(MisdesignEvent)} is invoked.
+	 * The allocations are polled during the turn, so the turn stops shortly after the quota is reached.
+	 * If the JVM does not measure the memory allocated by threads, there is no quota.
+	 *
+	 * @param allocationLimit the number of bytes allowed per turn, or {@link Game#NO_ALLOCATION_LIMIT}
+	 */
+	public void setAllocationLimit(long allocationLimit){
+		if(allocationLimit < 0) throw new IllegalArgumentException("The allocation limit cannot be negative");
+		this.allocationLimit = allocationLimit;
+	}
+
+	/**
+	 * Get the quota of memory that a strategy may allocate during a turn
+	 *
+	 * @return the number of bytes allowed per turn, or {@link Game#NO_ALLOCATION_LIMIT}
+	 */
+	public long getAllocationLimit(){
+		return allocationLimit;
+	}
+
+	/**
+	 * Set the watchdog that tracks the strategies that ignore the cancellation of their turn, and quarantines them
+	 *
+	 * @param watchdog the watchdog (by default, {@link Watchdog#getDefault()})
+	 */
+	public void setWatchdog(Watchdog watchdog){
+		if(watchdog == null) throw new NullPointerException("The watchdog cannot be null");
+		this.watchdog = watchdog;
+	}
+
+	/**
+	 * Get the watchdog that tracks the strategies that ignore the cancellation of their turn
+	 *
+	 * @return the watchdog
+	 */
+	public Watchdog getWatchdog(){
+		return watchdog;
+	}
+
 	/**
 	 * Get the current round identifier (counter)
 	 *
@@ -174,33 +280,75 @@ public class Game implements Runnable{
 	protected void executeTurn(){
 		final Player current = players[turn & 1];
 		final Player opponent = players[1 - (turn & 1)];
-		fireTurnBegins(new TurnEvent(this, current, opponent, round, turn));
+		if(turnListeners.length > 0) fireTurnBegins(new TurnEvent(this, current, opponent, round, turn));
 
 		Action action = null;
 		boolean readAction = true;
+		boolean cancelled = false;
 		final StrategyTask task = new StrategyTask(current, board, opponent);
-		ExecutorService executor = Executors.newSingleThreadExecutor();
-		Future future = executor.submit(task);
-		try{
-			future.get(timeout, TimeUnit.SECONDS);
-		}catch(TimeoutException e){
-			future.cancel(true);
+		final Watchdog watchdog = this.watchdog;
+		final long start = System.nanoTime();
+		ExecutorService executor = null;
+		if(watchdog.isQuarantined(current.getStrategy())){
 			readAction = false;
 			current.skip();
-			fireTimeout(new MisdesignEvent(current, board));
-		}catch(InterruptedException ie){
-			Thread.currentThread().interrupt();
-			return;
-		}catch(Exception e){
-			readAction = false;
-			current.skip();
-			fireException(new MisdesignEvent(current, board, e));
-		}finally{
-			executor.shutdownNow();
-			if(readAction){
-				action = task.getAction();
+			if(misdesignListeners.length > 0) fireException(new MisdesignEvent(current, board, quarantineOf(current, watchdog)));
+		}else{
+			executor = Executors.newSingleThreadExecutor(new ThreadFactory(){
+				@Override
+				public Thread newThread(Runnable runnable){
+					final Thread thread = new Thread(runnable, "Strategy-" + current.getName());
+					thread.setDaemon(true); // an orphaned strategy does not prevent the JVM to exit
+					return thread;
+				}
+			});
+			Future future = executor.submit(task);
+			try{
+				if(!await(future, task, start)){
+					future.cancel(true);
+					cancelled = true;
+					readAction = false;
+					current.skip();
+					if(misdesignListeners.length > 0) fireAllocationExceeded(new MisdesignEvent(current, board, task.getAllocatedBytes()));
+				}
+			}catch(TimeoutException e){
+				final TimeoutException timeout = timeoutOf(task);
+				future.cancel(true);
+				cancelled = true;
+				readAction = false;
+				current.skip();
+				if(misdesignListeners.length > 0) fireTimeout(new MisdesignEvent(current, board, timeout));
+			}catch(InterruptedException ie){
+				Thread.currentThread().interrupt();
+				return;
+			}catch(Exception e){
+				readAction = false;
+				current.skip();
+				if(misdesignListeners.length > 0) fireException(new MisdesignEvent(current, board, e));
+			}finally{
+				executor.shutdownNow();
+				if(readAction){
+					action = task.getAction();
+				}
+			}
+		}
+		// measured before the grace period given to a cancelled strategy
+		final long wallTime = System.nanoTime() - start;
+		final long cpuTime = task.getCpuTime();
+		final long allocatedBytes = task.getAllocatedBytes();
+		if(cancelled){
+			try{
+				watchdog.watch(executor, task.getRunner(), current);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				return;
 			}
 		}
+		current.account(cpuTime, allocatedBytes);
+		final int previousScore = current.getScore();
+		Piece moved = null;
+		boolean replaced = false;
+		int x = TurnDelta.NO_POSITION, y = TurnDelta.NO_POSITION, rotation = 0;
 		boolean penality = false;
 		if(action != null && !action.isSkip()){
 			if(!current.hasPiece(action.piece)){ // cheat
@@ -208,7 +356,7 @@ public class Game implements Runnable{
 				action = null;
 				current.skip();
 				penality = true;
-				fireInvalidPiece(new MisdesignEvent(current, board, tmp));
+				if(misdesignListeners.length > 0) fireInvalidPiece(new MisdesignEvent(current, board, tmp));
 			}else if(action.isReplace()){
 				if(!board.bag.isEmpty()){
 					if(canPlay(board, current)){
@@ -217,6 +365,8 @@ public class Game implements Runnable{
 					}
 					current.plays(action.piece);
 					current.draw(board.bag.swap(action.piece));
+					moved = action.piece;
+					replaced = true;
 				}else{
 					current.skip();
 					penality = true;
@@ -227,8 +377,12 @@ public class Game implements Runnable{
 				action = null;
 				current.skip();
 				penality = true;
-				fireInvalidPosition(new MisdesignEvent(current, board, tmp, pos));
+				if(misdesignListeners.length > 0) fireInvalidPosition(new MisdesignEvent(current, board, tmp, pos));
 			}else{
+				moved = action.piece;
+				x = action.position.x;
+				y = action.position.y;
+				rotation = action.rotation;
 				int incrSore = board.place(action.piece, action.position, action.rotation);
 				current.plays(action.piece);
 				current.setScore(current.getScore() + incrSore);
@@ -247,10 +401,53 @@ public class Game implements Runnable{
 			current.setScore(current.getScore() - skipPenalty);
 		}
 
-		fireTurnEnds(new TurnEvent(this, current, opponent, round, turn, action));
+		if(turnListeners.length > 0){
+			final TurnDelta delta = new TurnDelta(round, turn, moved, replaced, x, y, rotation, current.getScore() - previousScore,
+					  current.getScore(), opponent.getScore(), current.countSkip(), current.countPieces(), opponent.countPieces(), board.bag.size(), cpuTime, wallTime, allocatedBytes);
+			fireTurnEnds(new TurnEvent(this, current, opponent, round, turn, action, delta));
+		}
 		turn++;
 	}
 
+	/*
+	 * Describe a timeout with the stack trace of the strategy when it occurs, to show where the strategy spends its time
+	 */
+	private TimeoutException timeoutOf(StrategyTask task){
+		final TimeoutException exception = new TimeoutException("The strategy does not decide within " + timeout + " seconds");
+		final Thread runner = task.getRunner();
+		exception.setStackTrace(runner == null ? new StackTraceElement[0] : runner.getStackTrace());
+		return exception;
+	}
+
+	private static IllegalStateException quarantineOf(Player player, Watchdog watchdog){
+		final String name = player.getStrategy().getClass().getName();
+		return new IllegalStateException(name + " is quarantined, it ignored the cancellation of " + watchdog.countViolations(name) + " turns");
+	}
+
+	/*
+	 * Wait for the decision of a strategy within the timeout, either of wall-clock time or of CPU time (polled), and within the allocation quota
+	 * Return false if the allocation quota is exceeded
+	 */
+	private boolean await(Future future, StrategyTask task, long start) throws InterruptedException, ExecutionException, TimeoutException{
+		final long quota = StrategyTask.isAllocationSupported() ? allocationLimit : NO_ALLOCATION_LIMIT;
+		final boolean cpuTime = isCpuTimeAccounting();
+		if(!cpuTime && quota == NO_ALLOCATION_LIMIT){
+			future.get(timeout, TimeUnit.SECONDS);
+			return true;
+		}
+		final long limit = TimeUnit.SECONDS.toNanos(timeout);
+		while(true){
+			try{
+				future.get(POLL, TimeUnit.MILLISECONDS);
+				return quota == NO_ALLOCATION_LIMIT || task.getAllocatedBytes() <= quota;
+			}catch(TimeoutException e){
+				if(quota != NO_ALLOCATION_LIMIT && task.getAllocatedBytes() > quota) return false;
+				final long elapsed = System.nanoTime() - start;
+				if(cpuTime ? task.getCpuTime() >= limit || elapsed >= limit * WALL_CLOCK_FACTOR : elapsed >= limit) throw e;
+			}
+		}
+	}
+
 	/**
 	 * Check if a player has a {@link Piece} to play on the game {@link Board}
 	 *
@@ -298,9 +495,16 @@ public class Game implements Runnable{
 		for(Player player : players){
 			player.initialize(board.bag.take(INITIAL_PIECES));
 		}
-		fireRoundBegins(new RoundEvent(this, players[0], this.players[1], round));
-		Player winner = null;
+		if(roundListeners.length > 0) fireRoundBegins(new RoundEvent(this, players[0], this.players[1], round));
 		this.turn = 0;
+		playRound();
+	}
+
+	/**
+	 * Play the turns of the current round from the current position until the round ends
+	 */
+	private void playRound(){
+		Player winner = null;
 		do{
 			if(Thread.currentThread().isInterrupted()) return;
 			executeTurn();
@@ -321,7 +525,7 @@ public class Game implements Runnable{
 			}
 		}while(winner == null);
 		winner.win();
-		fireRoundEnds(new RoundEvent(this, players[0], this.players[1], round, winner));
+		if(roundListeners.length > 0) fireRoundEnds(new RoundEvent(this, players[0], this.players[1], round, winner));
 		round++;
 		Player swap = players[0];
 		players[0] = players[1];
@@ -333,20 +537,72 @@ public class Game implements Runnable{
 	 */
 	protected void executeGame(){
 		this.round = 0;
+		playGame(false);
+	}
+
+	private void playGame(boolean resumed){
 		for(Player player : players){
 			player.getStrategy().register(this);
 		}
-		fireGameBegins(new GameEvent(this, this.players[0], this.players[1]));
+		if(gameListeners.length > 0) fireGameBegins(new GameEvent(this, this.players[0], this.players[1]));
 
+		if(resumed && !Thread.currentThread().isInterrupted()){
+			if(roundListeners.length > 0) fireRoundBegins(new RoundEvent(this, players[0], this.players[1], round));
+			playRound();
+		}
 		while(!Thread.currentThread().isInterrupted() && players[0].countWin() < numWinningRounds && players[1].countWin() < numWinningRounds){
 			executeRound();
 		}
-		fireGameEnds(new GameEvent(this, this.players[0], this.players[1], players[0].countWin() >= numWinningRounds ? players[0] : players[1]));
+		if(gameListeners.length > 0) fireGameEnds(new GameEvent(this, this.players[0], this.players[1], players[0].countWin() >= numWinningRounds ? players[0] : players[1]));
 		for(Player player : players){
 			player.getStrategy().unregister(this);
 		}
 	}
 
+	/**
+	 * Take a snapshot of the current position (board, bag order, hands, scores, skips, wins, round, and turn).
+	 * It is designed to be called before a turn is played, e.g. from {@link TurnListener#onTurnBegins(TurnEvent)}: resuming the snapshot plays that turn first.
+	 *
+	 * @return the snapshot of the game
+	 */
+	public GameState snapshot(){
+		return new GameState(board, players[0], players[1], round, turn);
+	}
+
+	/**
+	 * Restore a position then play the game from it until the end, like {@link Game#run()}.
+	 * The first player of the game receives the state of the round starter (see {@link Game#getFirstPlayer()}), the second player the other one.
+	 * The events of the game begin and of the round begin are sent before the first resumed turn.
+	 *
+	 * @param state the position to resume
+	 * @throws IllegalArgumentException if the state does not match the board size
+	 */
+	public void resume(GameState state){
+		state.restore(board, players[0], players[1]);
+		this.round = state.getRound();
+		this.turn = state.getTurn();
+		playGame(true);
+	}
+
+	/**
+	 * Restore a position without playing it, e.g. to mirror a game that runs in another process.
+	 * The players are ordered so that the given one starts the round, then they receive the state like in {@link Game#resume(GameState)}.
+	 *
+	 * @param state   the position to restore
+	 * @param starter the player of this game who starts the round of the state
+	 * @throws IllegalArgumentException if the starter is not a player of this game or if the state does not match the board size
+	 */
+	public void restore(GameState state, Player starter){
+		if(starter != players[0] && starter != players[1]) throw new IllegalArgumentException("The starter is not a player of the game");
+		if(starter != players[0]){
+			players[1] = players[0];
+			players[0] = starter;
+		}
+		state.restore(board, players[0], players[1]);
+		this.round = state.getRound();
+		this.turn = state.getTurn();
+	}
+
 	/**
 	 * is the method called by the Java {@link Thread} mechanism which consist only in calling {@link Game#executeGame()}
 	 */
@@ -375,6 +631,16 @@ public class Game implements Runnable{
 			listener.onException(event);
 	}
 
+	/**
+	 * Send an event on all {@link MisdesignListener}, calling {@link MisdesignListener#onAllocationExceeded(MisdesignEvent)}
+	 *
+	 * @param event the event to send
+	 */
+	protected void fireAllocationExceeded(final MisdesignEvent event){
+		for(MisdesignListener listener : misdesignListeners)
+			listener.onAllocationExceeded(event);
+	}
+
 	/**
 	 * Send an event on all {@link MisdesignListener}, calling {@link MisdesignListener#onInvalidPosition(MisdesignEvent)}
 	 *
@@ -461,7 +727,9 @@ public class Game implements Runnable{
 	 * @param listener the listener that will receive events
 	 */
 	public void addGameListener(GameListener listener){
-		gameListeners.add(listener);
+		synchronized(listenersLock){
+			gameListeners = append(gameListeners, listener);
+		}
 	}
 
 	/**
@@ -470,7 +738,9 @@ public class Game implements Runnable{
 	 * @param listener the listener that will no more receive events
 	 */
 	public void removeGameListener(GameListener listener){
-		gameListeners.remove(listener);
+		synchronized(listenersLock){
+			gameListeners = remove(gameListeners, listener);
+		}
 	}
 
 	/**
@@ -479,7 +749,9 @@ public class Game implements Runnable{
 	 * @param listener the listener that will receive events
 	 */
 	public void addRoundListener(RoundListener listener){
-		roundListeners.add(listener);
+		synchronized(listenersLock){
+			roundListeners = append(roundListeners, listener);
+		}
 	}
 
 	/**
@@ -488,7 +760,9 @@ public class Game implements Runnable{
 	 * @param listener the listener that will no more receive events
 	 */
 	public void removeRoundListener(RoundListener listener){
-		roundListeners.remove(listener);
+		synchronized(listenersLock){
+			roundListeners = remove(roundListeners, listener);
+		}
 	}
 
 	/**
@@ -497,7 +771,9 @@ public class Game implements Runnable{
 	 * @param listener the listener that will receive events
 	 */
 	public void addTurnListener(TurnListener listener){
-		turnListeners.add(listener);
+		synchronized(listenersLock){
+			turnListeners = append(turnListeners, listener);
+		}
 	}
 
 	/**
@@ -506,7 +782,9 @@ public class Game implements Runnable{
 	 * @param listener the listener that will no more receive events
 	 */
 	public void removeTurnListener(TurnListener listener){
-		turnListeners.remove(listener);
+		synchronized(listenersLock){
+			turnListeners = remove(turnListeners, listener);
+		}
 	}
 
 	/**
@@ -515,7 +793,9 @@ public class Game implements Runnable{
 	 * @param listener the listener that will receive events
 	 */
 	public void addMisdesignListener(MisdesignListener listener){
-		misdesignListeners.add(listener);
+		synchronized(listenersLock){
+			misdesignListeners = append(misdesignListeners, listener);
+		}
 	}
 
 	/**
@@ -524,7 +804,26 @@ public class Game implements Runnable{
 	 * @param listener the listener that will no more receive events
 	 */
 	public void removeMisdesignListener(MisdesignListener listener){
-		misdesignListeners.remove(listener);
+		synchronized(listenersLock){
+			misdesignListeners = remove(misdesignListeners, listener);
+		}
+	}
+
+	private static <T> T[] append(T[] listeners, T listener){
+		final T[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+		copy[listeners.length] = listener;
+		return copy;
+	}
+
+	private static <T> T[] remove(T[] listeners, T listener){
+		for(int i = 0; i < listeners.length; i++){
+			if(listeners[i].equals(listener)){
+				final T[] copy = Arrays.copyOf(listeners, listeners.length - 1);
+				System.arraycopy(listeners, i + 1, copy, i, listeners.length - i - 1);
+				return copy;
+			}
+		}
+		return listeners;
 	}
 
 	/**
@@ -0,0 +1,313 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * This class is a serializable snapshot of a {@link Game} position: the {@link Board} content, the {@link Bag} order, the hands, scores, skips and wins of both {@link Player}s, the round and the turn.
+ * A snapshot is taken with {@link Game#snapshot()} (or built by hand for test positions) and a game continues from it with {@link Game#resume(GameState)}.
+ * The players are stored in the order of the round (the first one starts the round, see {@link Game#getFirstPlayer()}).
+ * Besides the Java serialization, a snapshot has a compact binary form (see {@link GameState#write(DataOutput)}) for the inter-process communication.
+ *
+ * @author Belegkarnil
+ */
+public final class GameState implements Serializable{
+	private final int size;
+	private final int round, turn;
+	private final Piece[] cells;
+	private final int[] rotations;
+	private final Piece[] bag;
+	private final Piece[][] hands;
+	private final int[] scores, skips, wins;
+
+	/**
+	 * Construct a snapshot of a game position
+	 *
+	 * @param round     the round identifier (counter)
+	 * @param turn      the turn identifier (counter), the first player plays the even turns
+	 * @param cells     the piece of each board cell, row by row (see {@link Board#countColumns(int)}), null for a free cell
+	 * @param rotations the rotation applied to the piece of each cell, row by row
+	 * @param bag       the pieces of the bag in the order they will be taken
+	 * @param first     the pieces of the player who starts the round
+	 * @param second    the pieces of the other player
+	 * @param scores    the score of both players (the round starter first)
+	 * @param skips     the number of skipped turns of both players
+	 * @param wins      the number of won rounds of both players
+	 * @throws IllegalArgumentException if the arrays do not match a square board size or if a piece is used twice
+	 */
+	public GameState(int round, int turn, Piece[] cells, int[] rotations, Piece[] bag, Piece[] first, Piece[] second, int[] scores, int[] skips, int[] wins){
+		this.size = (int) Math.round(Math.sqrt(cells.length));
+		if(size * size != cells.length || rotations.length != cells.length)
+			throw new IllegalArgumentException("Cells do not match a board size");
+		if(scores.length != 2 || skips.length != 2 || wins.length != 2)
+			throw new IllegalArgumentException("Scores, skips and wins require one value per player");
+		if(round < 0 || turn < 0) throw new IllegalArgumentException("Round and turn cannot be negative");
+		if(first.length > Game.INITIAL_PIECES || second.length > Game.INITIAL_PIECES)
+			throw new IllegalArgumentException("A player cannot have more than " + Game.INITIAL_PIECES + " pieces");
+		this.round = round;
+		this.turn = turn;
+		this.cells = cells.clone();
+		this.rotations = rotations.clone();
+		this.bag = bag.clone();
+		this.hands = new Piece[][]{first.clone(), second.clone()};
+		this.scores = scores.clone();
+		this.skips = skips.clone();
+		this.wins = wins.clone();
+
+		final Set<Piece> used = EnumSet.noneOf(Piece.class);
+		checkUnique(used, this.cells, true);
+		checkUnique(used, this.bag, false);
+		checkUnique(used, this.hands[0], false);
+		checkUnique(used, this.hands[1], false);
+	}
+
+	/**
+	 * Construct a snapshot of the current position of a game (see {@link Game#snapshot()})
+	 *
+	 * @param board  the board (and its bag)
+	 * @param first  the player who starts the round
+	 * @param second the other player
+	 * @param round  the round identifier (counter)
+	 * @param turn   the turn identifier (counter)
+	 */
+	GameState(Board board, Player first, Player second, int round, int turn){
+		this(round, turn, cellsOf(board), rotationsOf(board), board.bag.getContent(), first.getPieces(), second.getPieces(),
+				  new int[]{first.getScore(), second.getScore()},
+				  new int[]{first.countSkip(), second.countSkip()},
+				  new int[]{first.countWin(), second.countWin()});
+	}
+
+	private static void checkUnique(Set<Piece> used, Piece[] pieces, boolean allowNull){
+		for(Piece piece : pieces){
+			if(piece == null){
+				if(allowNull) continue;
+				throw new IllegalArgumentException("Piece cannot be null");
+			}
+			if(!used.add(piece)) throw new IllegalArgumentException("Piece " + piece + " is used twice");
+		}
+	}
+
+	private static Piece[] cellsOf(Board board){
+		final Piece[] cells = new Piece[board.countCells()];
+		int index = 0;
+		for(int y = 0; y < board.countRows(); y++){
+			for(int x = 0; x < board.countColumns(y); x++){
+				cells[index++] = board.getPiece(x, y);
+			}
+		}
+		return cells;
+	}
+
+	private static int[] rotationsOf(Board board){
+		final int[] rotations = new int[board.countCells()];
+		int index = 0;
+		for(int y = 0; y < board.countRows(); y++){
+			for(int x = 0; x < board.countColumns(y); x++){
+				rotations[index++] = board.getRotation(x, y);
+			}
+		}
+		return rotations;
+	}
+
+	void restore(Board board, Player first, Player second){
+		if(board.getSize() != size) throw new IllegalArgumentException("The board size does not match the state");
+		board.restore(cells, rotations);
+		board.bag.restore(bag);
+		first.restore(hands[0], scores[0], skips[0], wins[0]);
+		second.restore(hands[1], scores[1], skips[1], wins[1]);
+	}
+
+	/**
+	 * Write the compact binary form of the snapshot: a byte per piece ordinal (-1 for a free cell) and per rotation, the integers otherwise
+	 *
+	 * @param out the output
+	 * @throws IOException if the output fails
+	 */
+	public void write(DataOutput out) throws IOException{
+		out.writeInt(round);
+		out.writeInt(turn);
+		out.writeShort(cells.length);
+		for(int cell = 0; cell < cells.length; cell++){
+			out.writeByte(cells[cell] == null ? -1 : cells[cell].ordinal());
+			out.writeByte(rotations[cell]);
+		}
+		writePieces(out, bag);
+		writePieces(out, hands[0]);
+		writePieces(out, hands[1]);
+		for(int player = 0; player < 2; player++){
+			out.writeInt(scores[player]);
+			out.writeInt(skips[player]);
+			out.writeInt(wins[player]);
+		}
+	}
+
+	/**
+	 * Read a snapshot written by {@link GameState#write(DataOutput)}
+	 *
+	 * @param in the input
+	 * @return the snapshot
+	 * @throws IOException if the input fails or does not contain a valid snapshot
+	 */
+	public static GameState read(DataInput in) throws IOException{
+		final Piece[] values = Piece.values();
+		final int round = in.readInt();
+		final int turn = in.readInt();
+		final int size = in.readUnsignedShort();
+		final Piece[] cells = new Piece[size];
+		final int[] rotations = new int[size];
+		for(int cell = 0; cell < size; cell++){
+			final int piece = in.readByte();
+			cells[cell] = piece < 0 ? null : pieceOf(values, piece);
+			rotations[cell] = in.readByte();
+		}
+		final Piece[] bag = readPieces(in, values);
+		final Piece[] first = readPieces(in, values);
+		final Piece[] second = readPieces(in, values);
+		final int[] scores = new int[2], skips = new int[2], wins = new int[2];
+		for(int player = 0; player < 2; player++){
+			scores[player] = in.readInt();
+			skips[player] = in.readInt();
+			wins[player] = in.readInt();
+		}
+		try{
+			return new GameState(round, turn, cells, rotations, bag, first, second, scores, skips, wins);
+		}catch(IllegalArgumentException e){
+			throw new IOException("Invalid game state", e);
+		}
+	}
+
+	private static void writePieces(DataOutput out, Piece[] pieces) throws IOException{
+		out.writeByte(pieces.length);
+		for(Piece piece : pieces) out.writeByte(piece.ordinal());
+	}
+
+	private static Piece[] readPieces(DataInput in, Piece[] values) throws IOException{
+		final Piece[] pieces = new Piece[in.readUnsignedByte()];
+		for(int i = 0; i < pieces.length; i++) pieces[i] = pieceOf(values, in.readByte());
+		return pieces;
+	}
+
+	private static Piece pieceOf(Piece[] values, int ordinal) throws IOException{
+		if(ordinal < 0 || ordinal >= values.length) throw new IOException("Unknown piece " + ordinal);
+		return values[ordinal];
+	}
+
+	/**
+	 * Get the reference size of the board (see {@link Board#getSize()})
+	 *
+	 * @return the board size
+	 */
+	public int getBoardSize(){
+		return size;
+	}
+
+	/**
+	 * Get the round identifier (counter)
+	 *
+	 * @return the round identifier
+	 */
+	public int getRound(){
+		return round;
+	}
+
+	/**
+	 * Get the turn identifier (counter)
+	 *
+	 * @return the turn identifier
+	 */
+	public int getTurn(){
+		return turn;
+	}
+
+	/**
+	 * Get the piece of a board cell
+	 *
+	 * @param cell the cell index (row by row)
+	 * @return the piece or null if the cell is free
+	 */
+	public Piece getPiece(int cell){
+		return cells[cell];
+	}
+
+	/**
+	 * Get the rotation of the piece of a board cell
+	 *
+	 * @param cell the cell index (row by row)
+	 * @return the rotation
+	 */
+	public int getRotation(int cell){
+		return rotations[cell];
+	}
+
+	/**
+	 * Get the number of pieces in the bag
+	 *
+	 * @return the bag size
+	 */
+	public int getBagSize(){
+		return bag.length;
+	}
+
+	/**
+	 * Get a copy of the pieces of a player
+	 *
+	 * @param player 0 for the player who starts the round, 1 for the other one
+	 * @return An array of {@link Piece}
+	 */
+	public Piece[] getPieces(int player){
+		return hands[player].clone();
+	}
+
+	/**
+	 * Get the score of a player
+	 *
+	 * @param player 0 for the player who starts the round, 1 for the other one
+	 * @return the score
+	 */
+	public int getScore(int player){
+		return scores[player];
+	}
+
+	/**
+	 * Count the number of skipped turns of a player
+	 *
+	 * @param player 0 for the player who starts the round, 1 for the other one
+	 * @return the number of skipped turns
+	 */
+	public int countSkip(int player){
+		return skips[player];
+	}
+
+	/**
+	 * Count the number of won rounds of a player
+	 *
+	 * @param player 0 for the player who starts the round, 1 for the other one
+	 * @return the number of won rounds
+	 */
+	public int countWin(int player){
+		return wins[player];
+	}
+}
@@ -33,6 +33,7 @@ import java.util.List;
 /**
  * This class represents a Spectrangle player that use a {@link Strategy} and owns some {@link Piece}s.
  * It also maintains state information like the player name, the current (round) score, the number of round won during a {@link Game}, the number of time the player skip his turn (during a round).
+ * Finally, it totals the CPU time and the memory consumed by its {@link Strategy} over all its turns.
  *
  * @author Belegkarnil
  */
@@ -42,6 +43,9 @@ public class Player implements Externalizable{
 	private int win, skip;
 	private Strategy strategy;
 	private List<Piece> pieces;
+	private long mask;
+	private long cpuTime, allocatedBytes;
+	private StrategyThreads threads;
 
 	/**
 	 * Construct a new player
@@ -56,6 +60,7 @@ public class Player implements Externalizable{
 		this.skip = 0;
 		this.score = 0;
 		this.pieces = new LinkedList<Piece>();
+		this.mask = 0;
 	}
 
 	/**
@@ -65,7 +70,16 @@ public class Player implements Externalizable{
 	 * @return true iff the player owns the piece
 	 */
 	public final boolean hasPiece(Piece piece){
-		return pieces.contains(piece);
+		return (mask & (1L << piece.ordinal())) != 0;
+	}
+
+	/**
+	 * Get the {@link Piece}s owned by the player as a mask
+	 *
+	 * @return the mask of the pieces (the bit {@link Piece#ordinal()} is set iff the player owns the piece)
+	 */
+	public long getPieceMask(){
+		return mask;
 	}
 
 	/**
@@ -108,6 +122,39 @@ public class Player implements Externalizable{
 		this.score = score;
 	}
 
+	/**
+	 * Get the total CPU time consumed by the strategy of the player during its turns
+	 *
+	 * @return the CPU time in nanoseconds (0 if the JVM does not measure it)
+	 */
+	public long getCpuTime(){
+		return cpuTime;
+	}
+
+	/**
+	 * Get the total memory allocated by the strategy of the player during its turns
+	 *
+	 * @return the allocated memory in bytes (0 if the JVM does not measure it)
+	 */
+	public long getAllocatedBytes(){
+		return allocatedBytes;
+	}
+
+	void account(long cpuTime, long allocatedBytes){
+		if(cpuTime > 0) this.cpuTime += cpuTime;
+		if(allocatedBytes > 0) this.allocatedBytes += allocatedBytes;
+	}
+
+	/**
+	 * Get the factory of the helper threads of the strategy, they are accounted in the turns of the player
+	 *
+	 * @return the factory
+	 */
+	synchronized StrategyThreads getThreads(){
+		if(threads == null) threads = new StrategyThreads("Strategy-" + name);
+		return threads;
+	}
+
 	/**
 	 * Ask the player to use his {@link Strategy} and select an {@link Action} to play
 	 *
@@ -159,6 +206,20 @@ public class Player implements Externalizable{
 		this.score = 0;
 		this.pieces = new LinkedList<Piece>();
 		Collections.addAll(this.pieces, pieces);
+		this.mask = maskOf(this.pieces);
+	}
+
+	private static long maskOf(List<Piece> pieces){
+		long mask = 0;
+		for(Piece piece : pieces) mask |= 1L << piece.ordinal();
+		return mask;
+	}
+
+	void restore(Piece[] pieces, int score, int skip, int win){
+		initialize(pieces);
+		this.score = score;
+		this.skip = skip;
+		this.win = win;
 	}
 
 	/**
@@ -199,6 +260,7 @@ public class Player implements Externalizable{
 			size--;
 			this.pieces.add((Piece) in.readObject());
 		}
+		this.mask = maskOf(this.pieces);
 
 		this.strategy = new StrategyAdapter(){
 			@Override
@@ -210,10 +272,12 @@ public class Player implements Externalizable{
 
 	void plays(Piece piece){
 		this.pieces.remove(piece);
+		this.mask &= ~(1L << piece.ordinal());
 	}
 
 	void draw(Piece piece){
 		this.pieces.add(piece);
+		this.mask |= 1L << piece.ordinal();
 	}
 
 	/**
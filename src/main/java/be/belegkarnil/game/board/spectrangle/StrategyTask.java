@@ -19,19 +19,33 @@
  */
 package be.belegkarnil.game.board.spectrangle;
 
+import be.belegkarnil.game.board.spectrangle.event.TurnDelta;
 import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 /**
  * This class is a core class of the Game and represents the decision made by a {@link Strategy}.
  * The strategy can choose a {@link Piece} to play, but within a limited time. This class is a thread
  * ensuring that a strategy returns a {@link Piece} or null at timeout.
+ * It also measures the CPU time and the allocated memory of the thread that runs the strategy and of its helper threads
+ * (see {@link Game#getThreadFactory(Strategy)}), while it runs and once it is done.
  *
  * @author Belegkarnil
  */
 class StrategyTask extends Thread{
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+	private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocations();
+
 	private final Player current, opponent;
 	private final Board board;
 	private Action action;
+	private final StrategyThreads helpers;
+	private volatile long threadId, cpuStart, helpersStart, cpuTime, allocationStart, helpersAllocationStart, allocatedBytes;
+	private volatile boolean started, done;
+	private volatile Thread runner;
 
 	private final Object lock = new Object();
 
@@ -40,14 +54,95 @@ class StrategyTask extends Thread{
 		this.opponent = opponent;
 		this.board = board;
 		this.action = null;
+		this.helpers = current.getThreads();
+	}
+
+	private static com.sun.management.ThreadMXBean allocations(){
+		if(!(THREADS instanceof com.sun.management.ThreadMXBean)) return null;
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+		if(!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) return null;
+		return threads;
+	}
+
+	/**
+	 * Know if the JVM measures the memory allocated by threads
+	 *
+	 * @return true iff {@link StrategyTask#getAllocatedBytes()} is measured
+	 */
+	static boolean isAllocationSupported(){
+		return ALLOCATIONS != null;
+	}
+
+	/**
+	 * Know if the JVM measures the CPU time of threads
+	 *
+	 * @return true iff {@link StrategyTask#getCpuTime()} is measured
+	 */
+	static boolean isCpuTimeSupported(){
+		return CPU_TIME;
 	}
 
 	@Override
 	public void run(){
-		final Action action = current.behaves(board, opponent);
-		synchronized(lock){
-			this.action = action;
+		runner = Thread.currentThread();
+		threadId = runner.threadId();
+		if(CPU_TIME){
+			cpuStart = THREADS.getCurrentThreadCpuTime();
+			helpersStart = helpers.getCpuTime();
 		}
+		if(ALLOCATIONS != null){
+			allocationStart = ALLOCATIONS.getCurrentThreadAllocatedBytes();
+			helpersAllocationStart = helpers.getAllocatedBytes();
+		}
+		started = true;
+		try{
+			final Action action = current.behaves(board, opponent);
+			synchronized(lock){
+				this.action = action;
+			}
+		}finally{
+			if(CPU_TIME) cpuTime = THREADS.getCurrentThreadCpuTime() - cpuStart + helpers.getCpuTime() - helpersStart;
+			if(ALLOCATIONS != null)
+				allocatedBytes = ALLOCATIONS.getCurrentThreadAllocatedBytes() - allocationStart + helpers.getAllocatedBytes() - helpersAllocationStart;
+			done = true;
+		}
+	}
+
+	/**
+	 * Get the thread that runs the strategy (the task is submitted to an executor, it is not started as a thread)
+	 *
+	 * @return the thread, or null if the strategy did not start
+	 */
+	public Thread getRunner(){
+		return runner;
+	}
+
+	/**
+	 * Get the CPU time consumed by the strategy and its helper threads so far, or in total once it is done
+	 *
+	 * @return the CPU time in nanoseconds, or {@link TurnDelta#UNKNOWN_TIME} if it is not supported
+	 */
+	public long getCpuTime(){
+		if(!CPU_TIME) return TurnDelta.UNKNOWN_TIME;
+		if(done) return cpuTime;
+		if(!started) return 0;
+		final long now = THREADS.getThreadCpuTime(threadId);
+		if(now < 0) return done ? cpuTime : 0; // the thread just ended
+		return now - cpuStart + helpers.getCpuTime() - helpersStart;
+	}
+
+	/**
+	 * Get the memory allocated by the strategy and its helper threads so far, or in total once it is done
+	 *
+	 * @return the allocated memory in bytes, or {@link TurnDelta#UNKNOWN_ALLOCATION} if it is not supported
+	 */
+	public long getAllocatedBytes(){
+		if(ALLOCATIONS == null) return TurnDelta.UNKNOWN_ALLOCATION;
+		if(done) return allocatedBytes;
+		if(!started) return 0;
+		final long now = ALLOCATIONS.getThreadAllocatedBytes(threadId);
+		if(now < 0) return done ? allocatedBytes : 0; // the thread just ended
+		return now - allocationStart + helpers.getAllocatedBytes() - helpersAllocationStart;
 	}
 
 	public Action getAction(){
@@ -0,0 +1,111 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle;
+
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class creates the helper threads of a {@link Strategy} (e.g. its search threads) and totals their CPU time and their allocated
+ * memory, so that the turns of a strategy are accounted with all its threads, not only with the thread that calls
+ * {@link Strategy#plays(Player, Board, Player)}. The CPU time and the memory of a thread that ends are kept.
+ *
+ * @author Belegkarnil
+ */
+final class StrategyThreads implements ThreadFactory{
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final String name;
+	private final List<Thread> threads;
+	private long retiredCpuTime, retiredBytes;
+	private int counter;
+
+	/**
+	 * Construct a factory of threads
+	 *
+	 * @param name the prefix of the names of the threads
+	 */
+	StrategyThreads(String name){
+		this.name = name;
+		this.threads = new ArrayList<Thread>();
+		this.retiredCpuTime = 0;
+		this.retiredBytes = 0;
+		this.counter = 0;
+	}
+
+	@Override
+	public synchronized Thread newThread(final Runnable runnable){
+		final Thread thread = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				try{
+					runnable.run();
+				}finally{
+					retire(Thread.currentThread());
+				}
+			}
+		}, name + "-" + (counter++));
+		thread.setDaemon(true); // an orphaned strategy does not prevent the JVM to exit
+		threads.add(thread);
+		return thread;
+	}
+
+	private synchronized void retire(Thread thread){
+		if(StrategyTask.isCpuTimeSupported()) retiredCpuTime += THREADS.getCurrentThreadCpuTime();
+		if(StrategyTask.isAllocationSupported()) retiredBytes += ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+		threads.remove(thread);
+	}
+
+	/**
+	 * Get the CPU time consumed by all the threads created so far
+	 *
+	 * @return the CPU time in nanoseconds, 0 if it is not supported
+	 */
+	synchronized long getCpuTime(){
+		if(!StrategyTask.isCpuTimeSupported()) return 0;
+		long total = retiredCpuTime;
+		for(Thread thread : threads){
+			final long time = THREADS.getThreadCpuTime(thread.threadId());
+			if(time > 0) total += time; // -1 if the thread is not started yet
+		}
+		return total;
+	}
+
+	/**
+	 * Get the memory allocated by all the threads created so far
+	 *
+	 * @return the allocated memory in bytes, 0 if it is not supported
+	 */
+	synchronized long getAllocatedBytes(){
+		if(!StrategyTask.isAllocationSupported()) return 0;
+		final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) THREADS;
+		long total = retiredBytes;
+		for(Thread thread : threads){
+			final long bytes = allocations.getThreadAllocatedBytes(thread.threadId());
+			if(bytes > 0) total += bytes; // -1 if the thread is not started yet
+		}
+		return total;
+	}
+}
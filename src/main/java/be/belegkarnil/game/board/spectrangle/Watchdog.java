@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle;
+
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tracks the threads of the strategies that keep running after their turn was cancelled (timeout, allocation quota),
+ * because they never check their interruption. Java cannot stop such a thread: the watchdog lowers its priority, keeps it for the
+ * reports (see {@link Watchdog#dumpOrphans()}), and quarantines a strategy (by class name, so all its instances) after a number of
+ * orphaned threads. A {@link Game} skips the turns of a quarantined strategy without calling it.
+ *
+ * @author Belegkarnil
+ */
+public final class Watchdog{
+	/**
+	 * is the default number of orphaned threads after which a strategy is quarantined
+	 */
+	public static final int DEFAULT_QUARANTINE_THRESHOLD = 3;
+	/**
+	 * is the time (in milliseconds) a cancelled strategy has to stop before its thread is considered orphaned
+	 */
+	public static final long GRACE = 500;
+
+	private static final Watchdog instance = new Watchdog(DEFAULT_QUARANTINE_THRESHOLD);
+
+	private final int threshold;
+	private final Map<Thread, String> orphans;
+	private final Map<String, Integer> violations;
+
+	/**
+	 * Construct a watchdog
+	 *
+	 * @param threshold the number of orphaned threads after which a strategy is quarantined
+	 */
+	public Watchdog(int threshold){
+		if(threshold < 1) throw new IllegalArgumentException("The quarantine threshold must be strictly positive");
+		this.threshold = threshold;
+		this.orphans = new LinkedHashMap<Thread, String>();
+		this.violations = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Get the watchdog shared by the games that do not set their own (see {@link Game#setWatchdog(Watchdog)})
+	 *
+	 * @return the default watchdog
+	 */
+	public static Watchdog getDefault(){
+		return instance;
+	}
+
+	/**
+	 * Get the number of orphaned threads after which a strategy is quarantined
+	 *
+	 * @return the threshold
+	 */
+	public int getQuarantineThreshold(){
+		return threshold;
+	}
+
+	/**
+	 * Wait for the thread of a cancelled turn, then track it if it is still running
+	 *
+	 * @param executor the executor of the turn, already shut down
+	 * @param thread   the thread that runs the strategy (null if the strategy did not start)
+	 * @param player   the player of the strategy
+	 * @return true iff the thread is orphaned
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	boolean watch(ExecutorService executor, Thread thread, Player player) throws InterruptedException{
+		return watch(executor, thread, player.getStrategy());
+	}
+
+	/**
+	 * Wait for the thread of a cancelled call of a strategy, e.g. outside of a turn, then track it if it is still running
+	 *
+	 * @param executor the executor of the call, already shut down
+	 * @param thread   the thread that runs the strategy (null if the strategy did not start)
+	 * @param strategy the strategy, its violations are counted by class name
+	 * @return true iff the thread is orphaned
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public boolean watch(ExecutorService executor, Thread thread, Strategy strategy) throws InterruptedException{
+		if(executor.awaitTermination(GRACE, TimeUnit.MILLISECONDS) || thread == null || !thread.isAlive()) return false;
+		final String name = strategy.getClass().getName();
+		thread.setPriority(Thread.MIN_PRIORITY);
+		synchronized(this){
+			purge(); // the orphans that ended meanwhile are forgotten, even if nobody counts them
+			orphans.put(thread, name);
+			final Integer count = violations.get(name);
+			violations.put(name, count == null ? 1 : count + 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Know if a strategy is quarantined
+	 *
+	 * @param strategy the strategy
+	 * @return true iff its class left at least {@link Watchdog#getQuarantineThreshold()} orphaned threads
+	 */
+	public boolean isQuarantined(Strategy strategy){
+		return countViolations(strategy.getClass().getName()) >= threshold;
+	}
+
+	/**
+	 * Count the orphaned threads left by a strategy, still running or not
+	 *
+	 * @param className the class name of the strategy
+	 * @return the number of orphaned threads
+	 */
+	public synchronized int countViolations(String className){
+		final Integer count = violations.get(className);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Lift the quarantine of a strategy and forget its violations
+	 *
+	 * @param className the class name of the strategy
+	 */
+	public synchronized void release(String className){
+		violations.remove(className);
+	}
+
+	/**
+	 * Count the orphaned threads that are still running
+	 *
+	 * @return the number of running orphaned threads
+	 */
+	public synchronized int countOrphans(){
+		purge();
+		return orphans.size();
+	}
+
+	/**
+	 * Capture the stack traces of the orphaned threads that are still running, e.g. to report where the strategies loop
+	 *
+	 * @return the class name of the strategy and the stack trace of each running orphaned thread
+	 */
+	public synchronized List<Map.Entry<String, StackTraceElement[]>> dumpOrphans(){
+		purge();
+		final List<Map.Entry<String, StackTraceElement[]>> dump = new ArrayList<Map.Entry<String, StackTraceElement[]>>(orphans.size());
+		for(Map.Entry<Thread, String> orphan : orphans.entrySet()){
+			dump.add(Map.entry(orphan.getValue(), orphan.getKey().getStackTrace()));
+		}
+		return dump;
+	}
+
+	private void purge(){
+		final Iterator<Thread> threads = orphans.keySet().iterator();
+		while(threads.hasNext()){
+			if(!threads.next().isAlive()) threads.remove();
+		}
+	}
+}
@@ -0,0 +1,391 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.event;
+
+import be.belegkarnil.game.board.spectrangle.Game;
+
+import java.util.EventListener;
+import java.util.EventObject;
+
+/**
+ * This class forwards the events of a {@link Game} to another listener through a bounded ring buffer consumed by a dedicated thread.
+ * The game thread only publishes the event in the buffer, so a slow listener (e.g. a file recorder, a logger, or a metric collector) does not stall the game.
+ * The target listener may implement any of {@link GameListener}, {@link RoundListener}, {@link TurnListener}, and {@link MisdesignListener}; events are delivered in the order they were published.
+ * When the buffer is full, the {@link Backpressure} policy decides what happens to turn events.
+ * <p>
+ * Use {@link AsyncListener#register(Game)} to listen all the events the target is interested in, and {@link AsyncListener#unregister(Game)} to stop listening and release the thread.
+ *
+ * @author Belegkarnil
+ */
+public class AsyncListener implements GameListener, RoundListener, TurnListener, MisdesignListener, AutoCloseable{
+	/**
+	 * is the default number of events that the ring buffer can hold
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final byte GAME_BEGINS = 0;
+	private static final byte GAME_ENDS = 1;
+	private static final byte ROUND_BEGINS = 2;
+	private static final byte ROUND_ENDS = 3;
+	private static final byte TURN_BEGINS = 4;
+	private static final byte TURN_ENDS = 5;
+	private static final byte INVALID_PIECE = 6;
+	private static final byte INVALID_POSITION = 7;
+	private static final byte TIMEOUT = 8;
+	private static final byte EXCEPTION = 9;
+	private static final byte ALLOCATION_EXCEEDED = 10;
+
+	private final GameListener gameListener;
+	private final RoundListener roundListener;
+	private final TurnListener turnListener;
+	private final MisdesignListener misdesignListener;
+	private final Backpressure backpressure;
+
+	private final EventObject[] events;
+	private final byte[] kinds;
+	private final Object lock;
+	private int head, size;
+	private long discarded;
+	private boolean closed;
+	private final Thread consumer;
+
+	/**
+	 * Construct an asynchronous listener with a buffer of {@link AsyncListener#DEFAULT_CAPACITY} events that never discards events ({@link Backpressure#BLOCK})
+	 *
+	 * @param target the listener that will receive the events on the dedicated thread
+	 */
+	public AsyncListener(EventListener target){
+		this(target, DEFAULT_CAPACITY, Backpressure.BLOCK);
+	}
+
+	/**
+	 * Construct an asynchronous listener
+	 *
+	 * @param target       the listener that will receive the events on the dedicated thread
+	 * @param capacity     the maximum number of events waiting in the ring buffer
+	 * @param backpressure the behavior when the ring buffer is full
+	 * @throws IllegalArgumentException if the capacity is not greater than 0
+	 */
+	public AsyncListener(EventListener target, int capacity, Backpressure backpressure){
+		if(target == null) throw new NullPointerException("Target listener cannot be null");
+		if(backpressure == null) throw new NullPointerException("Backpressure cannot be null");
+		if(capacity < 1) throw new IllegalArgumentException("Capacity must be greater than 0");
+		this.gameListener = target instanceof GameListener ? (GameListener) target : null;
+		this.roundListener = target instanceof RoundListener ? (RoundListener) target : null;
+		this.turnListener = target instanceof TurnListener ? (TurnListener) target : null;
+		this.misdesignListener = target instanceof MisdesignListener ? (MisdesignListener) target : null;
+		this.backpressure = backpressure;
+
+		this.events = new EventObject[capacity];
+		this.kinds = new byte[capacity];
+		this.lock = new Object();
+		this.head = 0;
+		this.size = 0;
+		this.discarded = 0;
+		this.closed = false;
+
+		this.consumer = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				consume();
+			}
+		}, "AsyncListener-" + target.getClass().getSimpleName());
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	/**
+	 * Register this listener on a game for each listener interface implemented by the target
+	 *
+	 * @param game the game to listen
+	 */
+	public void register(Game game){
+		if(gameListener != null) game.addGameListener(this);
+		if(roundListener != null) game.addRoundListener(this);
+		if(turnListener != null) game.addTurnListener(this);
+		if(misdesignListener != null) game.addMisdesignListener(this);
+	}
+
+	/**
+	 * Unregister this listener from a game, then deliver the remaining events and stop the dedicated thread (see {@link AsyncListener#close()})
+	 *
+	 * @param game the game to stop listening
+	 */
+	public void unregister(Game game){
+		game.removeGameListener(this);
+		game.removeRoundListener(this);
+		game.removeTurnListener(this);
+		game.removeMisdesignListener(this);
+		close();
+	}
+
+	/**
+	 * Count the number of turn events discarded because the buffer was full (see {@link Backpressure#DROP} and {@link Backpressure#COALESCE})
+	 *
+	 * @return the number of discarded events
+	 */
+	public long countDiscarded(){
+		synchronized(lock){
+			return discarded;
+		}
+	}
+
+	/**
+	 * Stop accepting events, wait until the buffered events are delivered and the dedicated thread ends
+	 */
+	@Override
+	public void close(){
+		synchronized(lock){
+			closed = true;
+			lock.notifyAll();
+		}
+		if(Thread.currentThread() == consumer) return;
+		try{
+			consumer.join();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void publish(final byte kind, final EventObject event){
+		final boolean turn = kind == TURN_BEGINS || kind == TURN_ENDS;
+		synchronized(lock){
+			while(size == events.length && !closed){
+				if(turn && backpressure == Backpressure.DROP){
+					discarded++;
+					return;
+				}
+				if(turn && backpressure == Backpressure.COALESCE && discardOldestTurn()){
+					discarded++;
+					break;
+				}
+				try{
+					lock.wait();
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			if(closed) return;
+			final int tail = (head + size) % events.length;
+			events[tail] = event;
+			kinds[tail] = kind;
+			size++;
+			lock.notifyAll();
+		}
+	}
+
+	private boolean discardOldestTurn(){
+		// must hold the lock
+		for(int i = 0; i < size; i++){
+			final int index = (head + i) % events.length;
+			if(kinds[index] == TURN_BEGINS || kinds[index] == TURN_ENDS){
+				// shift the older events to fill the hole
+				for(int j = i; j > 0; j--){
+					final int to = (head + j) % events.length;
+					final int from = (head + j - 1) % events.length;
+					events[to] = events[from];
+					kinds[to] = kinds[from];
+				}
+				events[head] = null;
+				head = (head + 1) % events.length;
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void consume(){
+		for(; ; ){
+			final EventObject event;
+			final byte kind;
+			synchronized(lock){
+				while(size == 0 && !closed){
+					try{
+						lock.wait();
+					}catch(InterruptedException e){
+						return;
+					}
+				}
+				if(size == 0) return; // closed and drained
+				event = events[head];
+				kind = kinds[head];
+				events[head] = null;
+				head = (head + 1) % events.length;
+				size--;
+				lock.notifyAll();
+			}
+			try{
+				dispatch(kind, event);
+			}catch(RuntimeException e){
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void dispatch(final byte kind, final EventObject event){
+		switch(kind){
+			case GAME_BEGINS:
+				gameListener.onGameBegins((GameEvent) event);
+				break;
+			case GAME_ENDS:
+				gameListener.onGameEnds((GameEvent) event);
+				break;
+			case ROUND_BEGINS:
+				roundListener.onRoundBegins((RoundEvent) event);
+				break;
+			case ROUND_ENDS:
+				roundListener.onRoundEnds((RoundEvent) event);
+				break;
+			case TURN_BEGINS:
+				turnListener.onTurnBegins((TurnEvent) event);
+				break;
+			case TURN_ENDS:
+				turnListener.onTurnEnds((TurnEvent) event);
+				break;
+			case INVALID_PIECE:
+				misdesignListener.onInvalidPiece((MisdesignEvent) event);
+				break;
+			case INVALID_POSITION:
+				misdesignListener.onInvalidPosition((MisdesignEvent) event);
+				break;
+			case TIMEOUT:
+				misdesignListener.onTimeout((MisdesignEvent) event);
+				break;
+			case EXCEPTION:
+				misdesignListener.onException((MisdesignEvent) event);
+				break;
+			case ALLOCATION_EXCEEDED:
+				misdesignListener.onAllocationExceeded((MisdesignEvent) event);
+				break;
+		}
+	}
+
+	/**
+	 * See {@link GameListener#onGameBegins}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onGameBegins(GameEvent event){
+		if(gameListener != null) publish(GAME_BEGINS, event);
+	}
+
+	/**
+	 * See {@link GameListener#onGameEnds}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onGameEnds(GameEvent event){
+		if(gameListener != null) publish(GAME_ENDS, event);
+	}
+
+	/**
+	 * See {@link RoundListener#onRoundBegins}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onRoundBegins(RoundEvent event){
+		if(roundListener != null) publish(ROUND_BEGINS, event);
+	}
+
+	/**
+	 * See {@link RoundListener#onRoundEnds}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onRoundEnds(RoundEvent event){
+		if(roundListener != null) publish(ROUND_ENDS, event);
+	}
+
+	/**
+	 * See {@link TurnListener#onTurnBegins}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onTurnBegins(TurnEvent event){
+		if(turnListener != null) publish(TURN_BEGINS, event);
+	}
+
+	/**
+	 * See {@link TurnListener#onTurnEnds}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onTurnEnds(TurnEvent event){
+		if(turnListener != null) publish(TURN_ENDS, event);
+	}
+
+	/**
+	 * See {@link MisdesignListener#onInvalidPiece}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onInvalidPiece(MisdesignEvent event){
+		if(misdesignListener != null) publish(INVALID_PIECE, event);
+	}
+
+	/**
+	 * See {@link MisdesignListener#onInvalidPosition}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onInvalidPosition(MisdesignEvent event){
+		if(misdesignListener != null) publish(INVALID_POSITION, event);
+	}
+
+	/**
+	 * See {@link MisdesignListener#onTimeout}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onTimeout(MisdesignEvent event){
+		if(misdesignListener != null) publish(TIMEOUT, event);
+	}
+
+	/**
+	 * See {@link MisdesignListener#onException}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onException(MisdesignEvent event){
+		if(misdesignListener != null) publish(EXCEPTION, event);
+	}
+
+	/**
+	 * See {@link MisdesignListener#onAllocationExceeded}
+	 *
+	 * @param event the event to forward to the target
+	 */
+	@Override
+	public void onAllocationExceeded(MisdesignEvent event){
+		if(misdesignListener != null) publish(ALLOCATION_EXCEEDED, event);
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.event;
+
+/**
+ * This enumeration defines how an {@link AsyncListener} behaves when its ring buffer is full and the game publishes another {@link TurnEvent}.
+ * The other events (game, round, and misdesign events) are rare and never discarded: the game waits until the buffer has room for them.
+ *
+ * @author Belegkarnil
+ */
+public enum Backpressure{
+	/**
+	 * The game waits until the listener thread has consumed an event (no event is lost)
+	 */
+	BLOCK,
+	/**
+	 * The new turn event is discarded, the game never waits for a turn event
+	 */
+	DROP,
+	/**
+	 * The oldest buffered turn event is discarded to make room for the new one (only the most recent turns are kept)
+	 */
+	COALESCE
+}
@@ -61,4 +61,13 @@ public class MisdesignAdapter implements MisdesignListener{
 	@Override
 	public void onException(MisdesignEvent event){
 	}
+
+	/**
+	 * See {@link MisdesignListener#onAllocationExceeded}
+	 *
+	 * @param event
+	 */
+	@Override
+	public void onAllocationExceeded(MisdesignEvent event){
+	}
 }
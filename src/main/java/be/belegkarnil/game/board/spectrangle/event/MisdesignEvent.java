@@ -45,6 +45,10 @@ public class MisdesignEvent extends EventObject{
 	 * is the static constant that represents there are no position (null)
 	 */
 	public static final Point NO_POSITION = null;
+	/**
+	 * is the static constant that represents there are no allocation quota involved
+	 */
+	public static final long NO_ALLOCATION = -1;
 
 	/**
 	 * is the {link @Player} that generate the event
@@ -66,6 +70,10 @@ public class MisdesignEvent extends EventObject{
 	 * is the exception generated when the player tried to play (or {@link MisdesignEvent#NO_EXCEPTION})
 	 */
 	public final Exception exception;
+	/**
+	 * is the memory (in bytes) allocated by the player during the turn when it exceeds the quota (or {@link MisdesignEvent#NO_ALLOCATION})
+	 */
+	public final long allocatedBytes;
 
 	/**
 	 * Constructor designed for a timeout, only a board and a player, no piece are played
@@ -74,7 +82,18 @@ public class MisdesignEvent extends EventObject{
 	 * @param board  is the board related to the current game status
 	 */
 	public MisdesignEvent(final Player player, final Board board){
-		this(player, board, NO_PIECE, NO_POSITION, NO_EXCEPTION);
+		this(player, board, NO_PIECE, NO_POSITION, NO_EXCEPTION, NO_ALLOCATION);
+	}
+
+	/**
+	 * Constructor designed for an exceeded allocation quota, a board, a player, and the allocated memory
+	 *
+	 * @param player         is the player who has and generates a misconception event
+	 * @param board          is the board related to the current game status
+	 * @param allocatedBytes is the memory (in bytes) allocated by the player during the turn
+	 */
+	public MisdesignEvent(final Player player, final Board board, final long allocatedBytes){
+		this(player, board, NO_PIECE, NO_POSITION, NO_EXCEPTION, allocatedBytes);
 	}
 
 	/**
@@ -85,7 +104,7 @@ public class MisdesignEvent extends EventObject{
 	 * @param piece  is the piece that te player tried to play (or {@link MisdesignEvent#NO_PIECE} is no piece where played)
 	 */
 	public MisdesignEvent(final Player player, final Board board, final Piece piece){
-		this(player, board, piece, NO_POSITION, NO_EXCEPTION);
+		this(player, board, piece, NO_POSITION, NO_EXCEPTION, NO_ALLOCATION);
 	}
 
 	/**
@@ -97,7 +116,7 @@ public class MisdesignEvent extends EventObject{
 	 * @param position is the position at which te player tried to play (or {@link MisdesignEvent#NO_POSITION} is there are not position)
 	 */
 	public MisdesignEvent(final Player player, final Board board, final Piece piece, final Point position){
-		this(player, board, piece, position, NO_EXCEPTION);
+		this(player, board, piece, position, NO_EXCEPTION, NO_ALLOCATION);
 	}
 
 	/**
@@ -108,24 +127,26 @@ public class MisdesignEvent extends EventObject{
 	 * @param exception is exception generated by the {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy} implementation (or {@link MisdesignEvent#NO_EXCEPTION} if there are no exception)
 	 */
 	public MisdesignEvent(final Player player, final Board board, final Exception exception){
-		this(player, board, NO_PIECE, NO_POSITION, exception);
+		this(player, board, NO_PIECE, NO_POSITION, exception, NO_ALLOCATION);
 	}
 
 	/**
 	 * Generic constructor
 	 *
-	 * @param player    is the player who has and generates a misconception event
-	 * @param board     is the board related to the current game status
-	 * @param piece     is the piece that te player tried to play (or {@link MisdesignEvent#NO_PIECE} is no piece where played)
-	 * @param position  is the position at which te player tried to play (or {@link MisdesignEvent#NO_POSITION} is there are not position)
-	 * @param exception is exception generated by the {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy} implementation (or {@link MisdesignEvent#NO_EXCEPTION} if there are no exception)
+	 * @param player         is the player who has and generates a misconception event
+	 * @param board          is the board related to the current game status
+	 * @param piece          is the piece that te player tried to play (or {@link MisdesignEvent#NO_PIECE} is no piece where played)
+	 * @param position       is the position at which te player tried to play (or {@link MisdesignEvent#NO_POSITION} is there are not position)
+	 * @param exception      is exception generated by the {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy} implementation (or {@link MisdesignEvent#NO_EXCEPTION} if there are no exception)
+	 * @param allocatedBytes is the memory allocated during the turn (or {@link MisdesignEvent#NO_ALLOCATION})
 	 */
-	private MisdesignEvent(final Player player, final Board board, final Piece piece, final Point position, final Exception exception){
+	private MisdesignEvent(final Player player, final Board board, final Piece piece, final Point position, final Exception exception, final long allocatedBytes){
 		super(player);
 		this.player = player;
 		this.board = board;
 		this.piece = piece;
 		this.position = position;
 		this.exception = exception;
+		this.allocatedBytes = allocatedBytes;
 	}
 }
@@ -50,6 +50,7 @@ public interface MisdesignListener extends EventListener{
 
 	/**
 	 * Invoked when a {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy} hangs and does not select an {@link be.belegkarnil.game.board.spectrangle.Action} Within the given time frame.
+	 * The exception of the event is a {@link java.util.concurrent.TimeoutException} with the stack trace of the strategy at the timeout.
 	 *
 	 * @param event The event that contains all information about the current {@link Game} status and the current {@link be.belegkarnil.game.board.spectrangle.Player}
 	 */
@@ -57,8 +58,18 @@ public interface MisdesignListener extends EventListener{
 
 	/**
 	 * Invoked when a {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy} has badly designed and an {@link Exception} occurs.
+	 * It is also invoked, with an {@link IllegalStateException}, when the turn of a strategy quarantined by the {@link be.belegkarnil.game.board.spectrangle.Watchdog} is skipped.
 	 *
 	 * @param event The event that contains all information about the current {@link Game} status, the current {@link be.belegkarnil.game.board.spectrangle.Player} and the {@link Exception}
 	 */
 	public void onException(MisdesignEvent event);
+
+	/**
+	 * Invoked when a {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy} allocates more memory in a turn than the quota of the {@link Game} (see {@link Game#setAllocationLimit(long)}).
+	 * It does nothing by default, so that the listeners written before the quota still compile.
+	 *
+	 * @param event The event that contains all information about the current {@link Game} status, the current {@link be.belegkarnil.game.board.spectrangle.Player} and the allocated memory
+	 */
+	public default void onAllocationExceeded(MisdesignEvent event){
+	}
 }
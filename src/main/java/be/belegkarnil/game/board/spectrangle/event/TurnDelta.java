@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.event;
+
+import be.belegkarnil.game.board.spectrangle.Piece;
+
+import java.io.Serializable;
+
+/**
+ * This class is an immutable summary of what a turn changed during a {@link be.belegkarnil.game.board.spectrangle.Game}.
+ * Unlike the {@link be.belegkarnil.game.board.spectrangle.Player} and {@link be.belegkarnil.game.board.spectrangle.Action} references of a {@link TurnEvent}, its values never change after the turn,
+ * so it can be read later by another thread (see {@link AsyncListener}) or sent to another process to replay the game without copying the whole board.
+ * It describes the effective outcome of the turn: an invalid or a refused action is reported as a skip.
+ *
+ * @author Belegkarnil
+ */
+public final class TurnDelta implements Serializable{
+	/**
+	 * is the static constant that represents there are no position (no piece put on the board)
+	 */
+	public static final int NO_POSITION = -1;
+	/**
+	 * is the static constant that represents an unmeasured duration (e.g. the CPU time is not supported by the JVM)
+	 */
+	public static final long UNKNOWN_TIME = -1;
+	/**
+	 * is the static constant that represents an unmeasured allocation (e.g. the allocated memory is not supported by the JVM)
+	 */
+	public static final long UNKNOWN_ALLOCATION = -1;
+
+	/**
+	 * is the identifier (counter) of the related round.
+	 */
+	public final int round;
+	/**
+	 * is the identifier (counter) of the related turn.
+	 */
+	public final int turn;
+	/**
+	 * is the piece put on the board, or put back in the bag for a replace/swap, or null for a skip
+	 */
+	public final Piece piece;
+	/**
+	 * is true iff the piece was put back in the bag in exchange of another one
+	 */
+	public final boolean replace;
+	/**
+	 * is the x-axis (column) position of the board cell changed by the turn (or {@link TurnDelta#NO_POSITION})
+	 */
+	public final int x;
+	/**
+	 * is the y-axis (row) position of the board cell changed by the turn (or {@link TurnDelta#NO_POSITION})
+	 */
+	public final int y;
+	/**
+	 * is the rotation applied to the piece put on the board
+	 */
+	public final int rotation;
+	/**
+	 * is the score gained by the current player during the turn (negative if a penalty is applied)
+	 */
+	public final int scoreGained;
+	/**
+	 * is the score of the current player after the turn
+	 */
+	public final int currentScore;
+	/**
+	 * is the score of the opponent player after the turn
+	 */
+	public final int opponentScore;
+	/**
+	 * is the number of skipped turns of the current player after the turn
+	 */
+	public final int currentSkips;
+	/**
+	 * is the number of pieces the current player has after the turn
+	 */
+	public final int currentHandSize;
+	/**
+	 * is the number of pieces the opponent player has after the turn
+	 */
+	public final int opponentHandSize;
+	/**
+	 * is the number of pieces that remain in the bag after the turn
+	 */
+	public final int bagSize;
+	/**
+	 * is the CPU time (in nanoseconds) consumed by the thread of the strategy to decide, or {@link TurnDelta#UNKNOWN_TIME}
+	 */
+	public final long cpuTime;
+	/**
+	 * is the wall-clock time (in nanoseconds) the game waited for the decision, or {@link TurnDelta#UNKNOWN_TIME}
+	 */
+	public final long wallTime;
+	/**
+	 * is the memory (in bytes) allocated by the thread of the strategy to decide, or {@link TurnDelta#UNKNOWN_ALLOCATION}
+	 */
+	public final long allocatedBytes;
+
+	/**
+	 * Construct the summary of a turn without its cost (see {@link TurnDelta#UNKNOWN_TIME} and {@link TurnDelta#UNKNOWN_ALLOCATION})
+	 *
+	 * @param round            is the round identifier
+	 * @param turn             is the turn identifier
+	 * @param piece            is the piece played, replaced, or null for a skip
+	 * @param replace          is true iff the piece was swapped with another one from the bag
+	 * @param x                is the x-axis (column) position of the changed cell or {@link TurnDelta#NO_POSITION}
+	 * @param y                is the y-axis (row) position of the changed cell or {@link TurnDelta#NO_POSITION}
+	 * @param rotation         is the rotation applied to the piece put on the board
+	 * @param scoreGained      is the score gained (or lost) by the current player
+	 * @param currentScore     is the score of the current player after the turn
+	 * @param opponentScore    is the score of the opponent player after the turn
+	 * @param currentSkips     is the number of skipped turns of the current player after the turn
+	 * @param currentHandSize  is the number of pieces of the current player after the turn
+	 * @param opponentHandSize is the number of pieces of the opponent player after the turn
+	 * @param bagSize          is the number of pieces in the bag after the turn
+	 */
+	public TurnDelta(int round, int turn, Piece piece, boolean replace, int x, int y, int rotation, int scoreGained, int currentScore, int opponentScore, int currentSkips, int currentHandSize, int opponentHandSize, int bagSize){
+		this(round, turn, piece, replace, x, y, rotation, scoreGained, currentScore, opponentScore, currentSkips, currentHandSize, opponentHandSize, bagSize, UNKNOWN_TIME, UNKNOWN_TIME, UNKNOWN_ALLOCATION);
+	}
+
+	/**
+	 * Construct the summary of a turn and the cost (time and memory) of the decision of the strategy
+	 *
+	 * @param round            is the round identifier
+	 * @param turn             is the turn identifier
+	 * @param piece            is the piece played, replaced, or null for a skip
+	 * @param replace          is true iff the piece was swapped with another one from the bag
+	 * @param x                is the x-axis (column) position of the changed cell or {@link TurnDelta#NO_POSITION}
+	 * @param y                is the y-axis (row) position of the changed cell or {@link TurnDelta#NO_POSITION}
+	 * @param rotation         is the rotation applied to the piece put on the board
+	 * @param scoreGained      is the score gained (or lost) by the current player
+	 * @param currentScore     is the score of the current player after the turn
+	 * @param opponentScore    is the score of the opponent player after the turn
+	 * @param currentSkips     is the number of skipped turns of the current player after the turn
+	 * @param currentHandSize  is the number of pieces of the current player after the turn
+	 * @param opponentHandSize is the number of pieces of the opponent player after the turn
+	 * @param bagSize          is the number of pieces in the bag after the turn
+	 * @param cpuTime          is the CPU time (in nanoseconds) of the decision or {@link TurnDelta#UNKNOWN_TIME}
+	 * @param wallTime         is the wall-clock time (in nanoseconds) of the decision or {@link TurnDelta#UNKNOWN_TIME}
+	 * @param allocatedBytes   is the memory (in bytes) allocated by the decision or {@link TurnDelta#UNKNOWN_ALLOCATION}
+	 */
+	public TurnDelta(int round, int turn, Piece piece, boolean replace, int x, int y, int rotation, int scoreGained, int currentScore, int opponentScore, int currentSkips, int currentHandSize, int opponentHandSize, int bagSize, long cpuTime, long wallTime, long allocatedBytes){
+		this.round = round;
+		this.turn = turn;
+		this.piece = piece;
+		this.replace = replace;
+		this.x = x;
+		this.y = y;
+		this.rotation = rotation;
+		this.scoreGained = scoreGained;
+		this.currentScore = currentScore;
+		this.opponentScore = opponentScore;
+		this.currentSkips = currentSkips;
+		this.currentHandSize = currentHandSize;
+		this.opponentHandSize = opponentHandSize;
+		this.bagSize = bagSize;
+		this.cpuTime = cpuTime;
+		this.wallTime = wallTime;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 * Know if the turn was skipped (no piece put on the board and no replace/swap)
+	 *
+	 * @return true iff the turn was skipped
+	 */
+	public boolean isSkip(){
+		return piece == null;
+	}
+
+	/**
+	 * Know if the current player swapped a piece with the bag
+	 *
+	 * @return true iff a piece was replaced/swapped
+	 */
+	public boolean isReplace(){
+		return piece != null && replace;
+	}
+
+	/**
+	 * Know if a piece was put on the board (see {@link TurnDelta#x} and {@link TurnDelta#y})
+	 *
+	 * @return true iff a piece was put on the board
+	 */
+	public boolean isPiecePlayed(){
+		return piece != null && !replace;
+	}
+}
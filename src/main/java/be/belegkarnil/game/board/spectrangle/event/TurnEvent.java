@@ -35,6 +35,10 @@ public class TurnEvent extends EventObject{
 	 * is the static constant that represents there are no action (null)
 	 */
 	public static final Action NO_ACTION = null;
+	/**
+	 * is the static constant that represents there are no delta (null), e.g. when the turn begins
+	 */
+	public static final TurnDelta NO_DELTA = null;
 
 	/**
 	 * is the first {link @Player} when the turn will start, the event is related to this player
@@ -56,6 +60,10 @@ public class TurnEvent extends EventObject{
 	 * is the chosen {#link Action}, what the current {@link Player}'s strategy plays
 	 */
 	public final Action action;
+	/**
+	 * is the immutable summary of the turn outcome (or {@link TurnEvent#NO_DELTA})
+	 */
+	public final TurnDelta delta;
 	/**
 	 * is the {link @Game} related to this event (i.e. the {@link Game} that generates the event)
 	 */
@@ -87,12 +95,29 @@ public class TurnEvent extends EventObject{
 	 * @throws IllegalArgumentException if source is null
 	 */
 	public TurnEvent(final Game game, final Player current, final Player opponent, final int round, final int turn, final Action action){
+		this(game, current, opponent, round, turn, action, NO_DELTA);
+	}
+
+	/**
+	 * Constructor requires an action ({@link TurnEvent#NO_ACTION}) and its outcome ({@link TurnEvent#NO_DELTA}), designed for end events.
+	 *
+	 * @param game     the game related to the event, it's the source of the event
+	 * @param current  is the current player related to this event
+	 * @param opponent is the second/other/opponent player
+	 * @param round    is the round identifier related to the event
+	 * @param turn     is the turn identifier related to the event
+	 * @param action   is the action taken by the current player or {@link TurnEvent#NO_ACTION}
+	 * @param delta    is the immutable outcome of the turn or {@link TurnEvent#NO_DELTA}
+	 * @throws IllegalArgumentException if source is null
+	 */
+	public TurnEvent(final Game game, final Player current, final Player opponent, final int round, final int turn, final Action action, final TurnDelta delta){
 		super(game);
 		this.current = current;
 		this.opponent = opponent;
 		this.round = round;
 		this.turn = turn;
 		this.action = action;
+		this.delta = delta;
 		this.game = game;
 	}
 
@@ -19,7 +19,7 @@
  */
 package be.belegkarnil.game.board.spectrangle.gui;
 
-import be.belegkarnil.game.board.spectrangle.Bag;
+import be.belegkarnil.game.board.spectrangle.Board;
 import be.belegkarnil.game.board.spectrangle.Constants;
 import be.belegkarnil.game.board.spectrangle.Game;
 import be.belegkarnil.game.board.spectrangle.Player;
@@ -79,18 +79,19 @@ public class ScorePanel extends SpectranglePanel{
 		add(SECOND_PLAYER);
 	}
 
-	private void resetScore(Player first, Player second, Bag bag){
+	private void resetScore(Player first, Player second, Board board){
 		FIRST_PLAYER.setText(createPlayerInfo(first));
 		SECOND_PLAYER.setText(createPlayerInfo(second));
-		setBagInfo(bag);
+		setBagInfo(board, first, second);
 	}
 
 	private void setBagInfo(int count){
 		BAG_INFO.setText("Bag has " + String.valueOf(count) + " pieces");
 	}
 
-	private void setBagInfo(Bag bag){
-		setBagInfo(bag.size());
+	private void setBagInfo(Board board, Player first, Player second){
+		// the pieces that are neither on the board nor in a hand are in the bag
+		setBagInfo(Long.bitCount(board.unseenPieces(first, second)));
 	}
 
 	private String createPlayerInfo(Player player){
@@ -128,20 +129,20 @@ public class ScorePanel extends SpectranglePanel{
 				}else{
 					FIRST_PLAYER.setText(createPlayerInfo(te.opponent));
 				}
-				setBagInfo(te.game.getBoard().getBag());
+				setBagInfo(te.game.getBoard(), te.current, te.opponent);
 			}
 		});
 		game.addRoundListener(new RoundListener(){
 			@Override
 			public void onRoundBegins(RoundEvent re){
-				resetScore(re.startPlayer, re.opponent, re.game.getBoard().getBag());
+				resetScore(re.startPlayer, re.opponent, re.game.getBoard());
 			}
 
 			@Override
 			public void onRoundEnds(RoundEvent event){
 				FIRST_PLAYER.setText(createPlayerInfo(event.startPlayer));
 				SECOND_PLAYER.setText(createPlayerInfo(event.opponent));
-				setBagInfo(event.game.getBoard().getBag());
+				setBagInfo(event.game.getBoard(), event.startPlayer, event.opponent);
 			}
 		});
 	}
@@ -28,10 +28,12 @@ import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
 import be.belegkarnil.game.board.spectrangle.event.GameAdapter;
 import be.belegkarnil.game.board.spectrangle.event.GameEvent;
 import be.belegkarnil.game.board.spectrangle.event.TurnEvent;
+import be.belegkarnil.game.board.spectrangle.simulation.Warmup;
 
 import javax.swing.BorderFactory;
 import javax.swing.GroupLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -64,6 +66,8 @@ public class SettingsPanel extends SpectranglePanel implements ActionListener{
 	private JComboBox firstPlayerName, secondPlayerName;
 	private JTextField timeout, winningRounds, skip, penality;
 	private JSlider speed;
+	private JCheckBox warmup;
+	private final Warmup warmer;
 	private JButton play, stop;
 	private final Board board;
 	private ExecutorService executor;
@@ -74,6 +78,7 @@ public class SettingsPanel extends SpectranglePanel implements ActionListener{
 		this.board = board;
 		this.executor = Executors.newSingleThreadExecutor();
 		this.thread = null;
+		this.warmer = new Warmup(Warmup.DEFAULT_POSITIONS);
 		setLayout(new FlowLayout());
 		createStrategyPanel();
 		createConfigurationPanel();
@@ -110,6 +115,7 @@ public class SettingsPanel extends SpectranglePanel implements ActionListener{
 		this.winningRounds.setEnabled(freeze);
 		this.skip.setEnabled(freeze);
 		this.penality.setEnabled(freeze);
+		this.warmup.setEnabled(freeze);
 	}
 
 	@Override
@@ -208,6 +214,9 @@ public class SettingsPanel extends SpectranglePanel implements ActionListener{
 		this.speed.setMajorTickSpacing(5);
 		this.speed.setMinorTickSpacing(1);
 		speed.add(this.speed, BorderLayout.CENTER);
+		this.warmup = new JCheckBox("Warm-up");
+		this.warmup.setToolTipText("The strategies play " + Warmup.DEFAULT_POSITIONS + " throwaway positions before the first timed turn");
+		speed.add(this.warmup, BorderLayout.EAST);
 
 		config.add(panel, BorderLayout.CENTER);
 		config.add(speed, BorderLayout.SOUTH);
@@ -306,6 +315,7 @@ public class SettingsPanel extends SpectranglePanel implements ActionListener{
 		final Player first = new Player(firstStrategy.getClass().getName(), firstStrategy);
 		final Player second = new Player(secondStrategy.getClass().getName(), secondStrategy);
 		final Game game = new Game(board, first, second, timeout, winningRounds, skip, penality);
+		final Warmup warmer = warmup.isSelected() ? this.warmer : null;
 
 		// freeze GUI settings
 		freeze(true);
@@ -313,7 +323,20 @@ public class SettingsPanel extends SpectranglePanel implements ActionListener{
 		SpectranglePanel.initGame(game);
 
 		synchronized(threadLock){
-			this.thread = this.executor.submit(game);
+			this.thread = this.executor.submit(new Runnable(){
+				@Override
+				public void run(){
+					if(warmer != null){
+						try{
+							warmer.warmUp(first.getStrategy(), game);
+							warmer.warmUp(second.getStrategy(), game);
+						}catch(InterruptedException e){
+							return; // stopped
+						}
+					}
+					game.run();
+				}
+			});
 		}
 	}
 }
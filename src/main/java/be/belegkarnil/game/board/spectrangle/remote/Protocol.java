@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Piece;
+
+import java.awt.Point;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This class defines the binary protocol between the engine and a worker (see {@link WorkerMain}).
+ * The engine sends a request (an opcode then its arguments) and the worker answers a single response (a status then its payload).
+ * The worker announces itself with {@link Protocol#READY} once started.
+ *
+ * @author Belegkarnil
+ */
+final class Protocol{
+	/**
+	 * is the request that loads a strategy: class name, names of both players, board size, timeout, winning rounds, skip limit and penalty
+	 */
+	static final byte INIT = 1;
+	/**
+	 * is the request of an action: the index of the player in the state (0 if it starts the round) then the {@link be.belegkarnil.game.board.spectrangle.GameState}
+	 */
+	static final byte PLAY = 2;
+	/**
+	 * is the request that unregisters and forgets the strategy
+	 */
+	static final byte RESET = 3;
+	/**
+	 * is the request that only checks that the worker answers
+	 */
+	static final byte PING = 4;
+	/**
+	 * is the request that stops the worker
+	 */
+	static final byte EXIT = 5;
+
+	/**
+	 * is the response of a request without result
+	 */
+	static final byte OK = 0;
+	/**
+	 * is the response of a failed request, followed by a message
+	 */
+	static final byte ERROR = 1;
+	/**
+	 * is the response of {@link Protocol#PLAY}, followed by the action
+	 */
+	static final byte ACTION = 2;
+	/**
+	 * is the first message of a worker
+	 */
+	static final byte READY = 3;
+
+	private static final byte SKIP = 0, REPLACE = 1, PLACE = 2;
+
+	private Protocol(){
+	}
+
+	/**
+	 * Write an action: its kind, then the piece ordinal, the position and the rotation
+	 */
+	static void writeAction(DataOutput out, Action action) throws IOException{
+		if(action == null || action.isSkip()){
+			out.writeByte(SKIP);
+		}else if(action.isReplace()){
+			out.writeByte(REPLACE);
+			out.writeByte(action.piece.ordinal());
+		}else{
+			out.writeByte(PLACE);
+			out.writeByte(action.piece.ordinal());
+			out.writeByte(action.position == null ? -1 : action.position.x);
+			out.writeByte(action.position == null ? -1 : action.position.y);
+			out.writeByte(action.rotation);
+		}
+	}
+
+	/**
+	 * Read an action written by {@link Protocol#writeAction(DataOutput, Action)}
+	 */
+	static Action readAction(DataInput in) throws IOException{
+		final byte kind = in.readByte();
+		if(kind == SKIP) return new Action();
+		final Piece piece = pieceOf(in.readByte());
+		if(kind == REPLACE) return new Action(piece);
+		if(kind != PLACE) throw new IOException("Unknown action " + kind);
+		final int x = in.readByte(), y = in.readByte();
+		return new Action(piece, new Point(x, y), in.readByte());
+	}
+
+	private static Piece pieceOf(int ordinal) throws IOException{
+		final Piece[] pieces = Piece.values();
+		if(ordinal < 0 || ordinal >= pieces.length) throw new IOException("Unknown piece " + ordinal);
+		return pieces[ordinal];
+	}
+}
@@ -0,0 +1,318 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.GameState;
+import be.belegkarnil.game.board.spectrangle.Piece;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.strategy.SkipStrategy;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class exposes a Java {@link Strategy} through the text protocol of {@link ProtocolStrategy} on its standard input and output,
+ * e.g. to benchmark it with the tools of other engines or against itself out of process.
+ * The strategy plays against a copy of the game, restored from each position command; the content of the bag, which the protocol
+ * does not reveal, is made of the unseen pieces. The search runs on its own thread so that {@code stop}, or the end of the time given
+ * by {@code go movetime}, interrupts it. Every {@code go} is answered by a single {@code bestmove}, even if it is stopped before its search starts.
+ * The standard output of the strategy is redirected to the standard error.
+ *
+ * @author Belegkarnil
+ */
+public final class ProtocolServer{
+	private final Class<? extends Strategy> type;
+	private final PrintWriter out;
+	private final ExecutorService searcher;
+	private final ScheduledExecutorService clock;
+	private Strategy strategy;
+	private Game game;
+	private Board board;
+	private Player myself, opponent;
+	private GameState state;
+	private int player;
+	private Search search;
+
+	private ProtocolServer(Class<? extends Strategy> type, PrintWriter out){
+		this.type = type;
+		this.out = out;
+		this.searcher = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable runnable){
+				final Thread thread = new Thread(runnable, "Search");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.clock = Executors.newSingleThreadScheduledExecutor(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable runnable){
+				final Thread thread = new Thread(runnable, "Clock");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Serve the protocol until quit or the end of the standard input
+	 *
+	 * @param args the class name of the strategy, it requires a public constructor without parameters
+	 * @throws IOException                 if the communication fails
+	 * @throws ReflectiveOperationException if the strategy cannot be loaded
+	 */
+	public static void main(String[] args) throws IOException, ReflectiveOperationException{
+		if(args.length != 1) throw new IllegalArgumentException("Usage: ProtocolServer <strategy class>");
+		final Class<? extends Strategy> type = Class.forName(args[0]).asSubclass(Strategy.class);
+		type.getConstructor(); // fail early
+		final PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8));
+		System.setOut(System.err);
+		final BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		new ProtocolServer(type, out).serve(in);
+		System.exit(0);
+	}
+
+	private void serve(BufferedReader in) throws IOException, ReflectiveOperationException{
+		String line;
+		while((line = in.readLine()) != null){
+			final String[] tokens = TextProtocol.tokens(line);
+			if(tokens.length == 0) continue;
+			try{
+				switch(tokens[0]){
+					case TextProtocol.HELLO:
+						answer(TextProtocol.ID + ' ' + TextProtocol.NAME + ' ' + type.getSimpleName());
+						answer(TextProtocol.HELLO_OK);
+						break;
+					case TextProtocol.NEW_GAME:
+						newGame(tokens);
+						break;
+					case TextProtocol.IS_READY:
+						answer(TextProtocol.READY_OK);
+						break;
+					case TextProtocol.POSITION:
+						position(tokens);
+						break;
+					case TextProtocol.GO:
+						go(tokens);
+						break;
+					case TextProtocol.STOP:
+						if(search != null) search.cancel();
+						break;
+					case TextProtocol.QUIT:
+						stop();
+						return;
+					default:
+						System.err.println("Unknown command: " + line);
+				}
+			}catch(IllegalArgumentException | IllegalStateException e){
+				System.err.println("Invalid command (" + e.getMessage() + "): " + line);
+			}
+		}
+		stop();
+	}
+
+	private synchronized void answer(String line){
+		out.println(line);
+		out.flush();
+	}
+
+	private void newGame(String[] tokens) throws ReflectiveOperationException{
+		if(tokens.length != 6) throw new IllegalArgumentException("newgame requires the size, timeout, winning rounds, skip limit and penalty");
+		stop();
+		strategy = type.getConstructor().newInstance();
+		board = new Board(Integer.parseInt(tokens[1]));
+		myself = new Player("myself", strategy);
+		opponent = new Player("opponent", new SkipStrategy());
+		game = new Game(board, myself, opponent, Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3]), Integer.parseInt(tokens[4]),
+			  Integer.parseInt(tokens[5]));
+		strategy.register(game);
+	}
+
+	private void position(String[] tokens){
+		if(game == null) throw new IllegalStateException("No game");
+		int index = 0;
+		index = keyword(tokens, index, TextProtocol.POSITION);
+		final int round = Integer.parseInt(tokens[keyword(tokens, index, TextProtocol.ROUND)]);
+		index += 2;
+		final int turn = Integer.parseInt(tokens[keyword(tokens, index, TextProtocol.TURN)]);
+		index += 2;
+		final int player = Integer.parseInt(tokens[keyword(tokens, index, TextProtocol.PLAYER)]);
+		if(player != 0 && player != 1) throw new IllegalArgumentException("The player is 0 or 1");
+		index = keyword(tokens, index + 2, TextProtocol.CELLS);
+		final int count = board.countCells();
+		if(index + count > tokens.length) throw new IllegalArgumentException("The board has " + count + " cells");
+		final Piece[] cells = new Piece[count];
+		final int[] rotations = new int[count];
+		long placed = 0;
+		for(int cell = 0; cell < count; cell++){
+			final String token = tokens[index++];
+			if(TextProtocol.NONE.equals(token)) continue;
+			final int colon = token.indexOf(':');
+			if(colon < 0) throw new IllegalArgumentException("Invalid cell " + token);
+			cells[cell] = TextProtocol.parsePiece(token.substring(0, colon));
+			rotations[cell] = Integer.parseInt(token.substring(colon + 1));
+			placed |= 1L << cells[cell].ordinal();
+		}
+		final int bagSize = Integer.parseInt(tokens[keyword(tokens, index, TextProtocol.BAG)]);
+		index = keyword(tokens, index + 2, TextProtocol.HANDS);
+		final Piece[] first = TextProtocol.parseHand(tokens[index]);
+		final Piece[] second = TextProtocol.parseHand(tokens[index + 1]);
+		final int[] scores = pair(tokens, index + 2, TextProtocol.SCORES);
+		final int[] skips = pair(tokens, index + 5, TextProtocol.SKIPS);
+		final int[] wins = pair(tokens, index + 8, TextProtocol.WINS);
+
+		long unseen = Board.ALL_PIECES & ~placed;
+		for(Piece piece : first) unseen &= ~(1L << piece.ordinal());
+		for(Piece piece : second) unseen &= ~(1L << piece.ordinal());
+		if(Long.bitCount(unseen) != bagSize) throw new IllegalArgumentException("The bag size does not match the unseen pieces");
+		final List<Piece> bag = new ArrayList<Piece>(bagSize);
+		for(Piece piece : Piece.values()) if((unseen & (1L << piece.ordinal())) != 0) bag.add(piece);
+
+		this.state = new GameState(round, turn, cells, rotations, bag.toArray(new Piece[0]), first, second, scores, skips, wins);
+		this.player = player;
+	}
+
+	/*
+	 * Check the keyword at the index and return the index of its first value
+	 */
+	private static int keyword(String[] tokens, int index, String keyword){
+		if(index >= tokens.length || !keyword.equals(tokens[index])) throw new IllegalArgumentException("Expecting " + keyword);
+		return index + 1;
+	}
+
+	private static int[] pair(String[] tokens, int index, String keyword){
+		final int value = keyword(tokens, index, keyword);
+		if(value + 1 >= tokens.length) throw new IllegalArgumentException(keyword + " requires two values");
+		return new int[]{Integer.parseInt(tokens[value]), Integer.parseInt(tokens[value + 1])};
+	}
+
+	private void go(String[] tokens){
+		if(state == null) throw new IllegalStateException("No position");
+		long moveTime = -1;
+		if(tokens.length > 1){
+			moveTime = Long.parseLong(tokens[keyword(tokens, 1, TextProtocol.MOVE_TIME)]);
+			if(moveTime < 0) throw new IllegalArgumentException("The move time cannot be negative");
+		}
+		final Search search = new Search(player == 0 ? myself : opponent);
+		search.future = searcher.submit(search);
+		this.search = search;
+		if(moveTime >= 0){
+			clock.schedule(new Runnable(){
+				@Override
+				public void run(){
+					search.cancel();
+				}
+			}, moveTime, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/*
+	 * Interrupt the search and unregister the strategy
+	 */
+	private void stop(){
+		if(search != null){
+			search.cancel();
+			search = null;
+		}
+		if(strategy != null){
+			final Strategy previous = strategy;
+			final Game game = this.game;
+			strategy = null;
+			// unregister after the pending search, on the search thread
+			searcher.submit(new Runnable(){
+				@Override
+				public void run(){
+					previous.unregister(game);
+				}
+			});
+		}
+		game = null;
+		board = null;
+		myself = null;
+		opponent = null;
+		state = null;
+	}
+
+	/*
+	 * The search of a position, it answers a single bestmove: when it ends, or when it is cancelled before it starts
+	 */
+	private final class Search implements Runnable{
+		private final AtomicBoolean started;
+		private final GameState state;
+		private final Game game;
+		private final Strategy strategy;
+		private final Board board;
+		private final Player myself, opponent, starter;
+		private volatile Future<?> future;
+
+		private Search(Player starter){
+			this.started = new AtomicBoolean();
+			this.state = ProtocolServer.this.state;
+			this.game = ProtocolServer.this.game;
+			this.strategy = ProtocolServer.this.strategy;
+			this.board = ProtocolServer.this.board;
+			this.myself = ProtocolServer.this.myself;
+			this.opponent = ProtocolServer.this.opponent;
+			this.starter = starter;
+		}
+
+		@Override
+		public void run(){
+			if(!started.compareAndSet(false, true)) return; // cancelled before it starts, already answered
+			Action action = null;
+			try{
+				game.restore(state, starter);
+				action = strategy.plays(myself, board, opponent);
+			}catch(Exception e){
+				e.printStackTrace();
+			}finally{
+				answer(TextProtocol.bestMove(action));
+			}
+		}
+
+		private void cancel(){
+			if(started.compareAndSet(false, true)){
+				future.cancel(false);
+				answer(TextProtocol.bestMove(null));
+			}else{
+				future.cancel(true);
+			}
+		}
+	}
+}
@@ -0,0 +1,308 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.strategy.StrategyAdapter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This strategy launches an external program and drives it through a line based text protocol on its standard input and output,
+ * in the spirit of UCI for chess engines, so that a bot written in any language plays in a {@link Game}.
+ * {@link ProtocolServer} exposes any Java strategy through the same protocol.
+ * <p>
+ * The engine sends the following commands, the tokens are separated by spaces and each command ends with a new line:
+ * <ul>
+ * <li>{@code spectrangle}: sent once after the launch, the bot may answer {@code id name <name>} then answers {@code spectrangleok}</li>
+ * <li>{@code newgame <size> <timeout> <winning rounds> <skip limit> <skip penalty>}: a new game with the settings of {@link Game}
+ * (the timeout in seconds)</li>
+ * <li>{@code isready}: the bot answers {@code readyok} as soon as it accepts commands</li>
+ * <li>{@code position round <r> turn <t> player <p> cells <c>... bag <n> hands <h0> <h1> scores <s0> <s1> skips <k0> <k1> wins <w0> <w1>}:
+ * the position of the game; index 0 is the player who starts the round and {@code p} is the index of the bot. The cells are listed row
+ * by row (see {@link Board#countColumns(int)}), a cell is {@code -} if it is free, otherwise {@code <piece>:<rotation>}. A hand is a
+ * comma separated list of pieces, {@code -} if it is empty. The pieces are written with the names of
+ * {@link be.belegkarnil.game.board.spectrangle.Piece}. The bag is not revealed, only its size.</li>
+ * <li>{@code go movetime <ms>}: the bot searches for at most the given time and answers {@code bestmove <piece> <x> <y> <rotation>},
+ * {@code bestmove replace <piece>} or {@code bestmove skip}</li>
+ * <li>{@code stop}: the bot answers its pending bestmove immediately, the answer is ignored since the turn is over</li>
+ * <li>{@code quit}: the bot stops</li>
+ * </ul>
+ * The bot may print other lines (e.g. {@code info ...}), they are ignored. The standard error of the bot is inherited.
+ * <p>
+ * The program is launched and the game is announced when the strategy is registered, outside of the time of the turns, and the
+ * program is kept for the next games of the strategy, until {@link ProtocolStrategy#close()}.
+ * A bot that crashes or does not answer in time is killed and launched again at the next turn.
+ *
+ * @author Belegkarnil
+ */
+public class ProtocolStrategy extends StrategyAdapter implements AutoCloseable{
+	/**
+	 * is the time (in milliseconds) allowed to the answers other than bestmove (launch, readyok, ...)
+	 */
+	public static final long REQUEST_TIMEOUT = 10000;
+	/**
+	 * is the time (in milliseconds) subtracted from the timeout of the game for the communication
+	 */
+	public static final long LATENCY = 100;
+
+	private static final long GRACE = 1000; // the game interrupts the turn first, the bot is killed if it does not answer after
+	private static final String DEAD = new String("the process ended"); // compared by reference
+
+	private final List<String> command;
+	private volatile Game game;
+	private Game announced;
+	private Process process;
+	private Writer out;
+	private LinkedBlockingQueue<String> lines;
+	private String engineName;
+	private int stale;
+
+	/**
+	 * Construct a strategy that drives an external program
+	 *
+	 * @param command the program and its arguments
+	 */
+	public ProtocolStrategy(String... command){
+		this(Arrays.asList(command));
+	}
+
+	/**
+	 * Construct a strategy that drives an external program
+	 *
+	 * @param command the program and its arguments
+	 */
+	public ProtocolStrategy(List<String> command){
+		if(command == null || command.isEmpty()) throw new IllegalArgumentException("The command cannot be empty");
+		this.command = new ArrayList<String>(command);
+		this.engineName = null;
+	}
+
+	/**
+	 * Get the name announced by the bot ({@code id name}) once it is launched
+	 *
+	 * @return the name, or null if the bot is not launched or did not announce it
+	 */
+	public synchronized String getEngineName(){
+		return engineName;
+	}
+
+	/**
+	 * Override the {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#register(Game)}, remember the game, launch the bot if
+	 * needed and announce the game. If the bot fails, it is launched again at the first turn.
+	 *
+	 * @param game see {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#register(Game)}
+	 */
+	@Override
+	public synchronized void register(Game game){
+		this.game = game;
+		try{
+			prepare(game);
+		}catch(IOException e){
+			kill();
+			e.printStackTrace();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Override the {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#unregister(Game)} and forget the game, the bot keeps running
+	 *
+	 * @param game see {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#unregister(Game)}
+	 */
+	@Override
+	public void unregister(Game game){
+		this.game = null;
+	}
+
+	/**
+	 * Override the {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#isWarmable()}, the bot runs in another process
+	 *
+	 * @return false
+	 */
+	@Override
+	public boolean isWarmable(){
+		return false;
+	}
+
+	/**
+	 * Override the {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#plays(Player, Board, Player)} and ask the move to the bot
+	 *
+	 * @param myself   see {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#plays}
+	 * @param board    see {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#plays}
+	 * @param opponent see {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#plays}
+	 * @return the move of the bot, or null if the turn is interrupted
+	 * @throws IllegalStateException if the strategy is not registered or the bot fails
+	 */
+	@Override
+	public synchronized Action plays(Player myself, Board board, Player opponent){
+		final long start = System.nanoTime();
+		final Game game = this.game;
+		if(game == null) throw new IllegalStateException("A protocol strategy plays within a registered game");
+		boolean searching = false;
+		try{
+			prepare(game);
+			// the time already spent (e.g. to launch again a bot that failed) is not given to the search
+			final long budget = game.getTimeout() * 1000L - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			send(TextProtocol.position(game.snapshot(), game.getFirstPlayer() == myself ? 0 : 1));
+			send(TextProtocol.GO + ' ' + TextProtocol.MOVE_TIME + ' ' + Math.max(1, budget - LATENCY));
+			searching = true;
+			final String[] answer = expect(TextProtocol.BEST_MOVE, Math.max(0, budget) + GRACE);
+			try{
+				return TextProtocol.parseBestMove(answer);
+			}catch(IllegalArgumentException e){
+				throw new IOException(e.getMessage());
+			}
+		}catch(InterruptedException e){
+			if(searching){ // only a go is answered by a bestmove
+				try{
+					send(TextProtocol.STOP);
+					stale++;
+				}catch(IOException ioe){
+					kill();
+				}
+			}
+			Thread.currentThread().interrupt();
+			return null;
+		}catch(IOException e){
+			kill();
+			throw new IllegalStateException("The bot " + command.get(0) + " failed: " + e.getMessage(), e);
+		}
+	}
+
+	/*
+	 * Launch the bot if needed, wait the answers of the interrupted turns, then announce the game
+	 */
+	private void prepare(Game game) throws IOException, InterruptedException{
+		if(process != null && stale > 0){
+			try{
+				while(stale > 0){
+					expect(TextProtocol.BEST_MOVE, GRACE);
+					stale--;
+				}
+			}catch(IOException e){
+				kill(); // the bot ignores stop
+			}
+		}
+		if(process == null || !process.isAlive()){
+			kill();
+			launch();
+		}
+		if(announced != game){
+			send(TextProtocol.NEW_GAME + ' ' + game.getBoard().getSize() + ' ' + game.getTimeout() + ' ' + game.getWinningRounds() + ' ' +
+				  game.getSkipLimit() + ' ' + game.getSkipPenalty());
+			send(TextProtocol.IS_READY);
+			expect(TextProtocol.READY_OK, REQUEST_TIMEOUT);
+			announced = game;
+		}
+	}
+
+	private void launch() throws IOException, InterruptedException{
+		process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		out = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+		lines = new LinkedBlockingQueue<String>();
+		final LinkedBlockingQueue<String> queue = lines;
+		final BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		final Thread reader = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				try{
+					String line;
+					while((line = in.readLine()) != null) queue.add(line);
+				}catch(IOException e){
+					// the process is killed
+				}finally{
+					queue.add(DEAD);
+				}
+			}
+		}, "Bot-" + process.pid());
+		reader.setDaemon(true);
+		reader.start();
+		stale = 0;
+		engineName = null;
+		send(TextProtocol.HELLO);
+		expect(TextProtocol.HELLO_OK, REQUEST_TIMEOUT);
+	}
+
+	private void send(String line) throws IOException{
+		out.write(line);
+		out.write('\n');
+		out.flush();
+	}
+
+	/*
+	 * Read the lines until an answer that starts with the keyword, remember the name of the bot on the way
+	 */
+	private String[] expect(String keyword, long timeout) throws IOException, InterruptedException{
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		while(true){
+			final String line = lines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+			if(line == null) throw new IOException("No " + keyword + " within " + timeout + " ms");
+			if(line == DEAD) throw new IOException("The bot ended");
+			final String[] tokens = TextProtocol.tokens(line);
+			if(tokens.length == 0) continue;
+			if(keyword.equals(tokens[0])) return tokens;
+			if(tokens.length > 2 && TextProtocol.ID.equals(tokens[0]) && TextProtocol.NAME.equals(tokens[1]))
+				engineName = line.trim().substring(TextProtocol.ID.length()).trim().substring(TextProtocol.NAME.length()).trim();
+		}
+	}
+
+	private void kill(){
+		if(process != null) process.destroyForcibly();
+		process = null;
+		out = null;
+		lines = null;
+		announced = null;
+		stale = 0;
+	}
+
+	/**
+	 * Ask the bot to quit, then kill it if it does not stop soon
+	 */
+	@Override
+	public synchronized void close(){
+		if(process == null) return;
+		try{
+			send(TextProtocol.QUIT);
+			if(!process.waitFor(REQUEST_TIMEOUT, TimeUnit.MILLISECONDS)) process.destroyForcibly();
+		}catch(IOException e){
+			e.printStackTrace();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}finally{
+			kill();
+		}
+	}
+}
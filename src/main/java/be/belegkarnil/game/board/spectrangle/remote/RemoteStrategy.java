@@ -0,0 +1,165 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+import be.belegkarnil.game.board.spectrangle.strategy.StrategyAdapter;
+
+import java.io.IOException;
+
+/**
+ * This {@link Strategy} plays a strategy hosted in a worker JVM of a {@link WorkerPool}, so that a misbehaving strategy cannot exhaust
+ * the heap of the engine, ignore the cancellation of its turn, or change the state of the engine.
+ * A worker is leased for the whole game and receives the position at each turn. The turn of a worker that times out (the {@link Game}
+ * interrupts the turn) is cancelled by destroying the worker; after a crash, the next turn leases a new worker (the strategy restarts
+ * from its default constructor). A failure of the worker is reported to the {@link Game} as an exception of the strategy.
+ * Only the turns of the strategy are sent to the worker: the events of the game are not forwarded.
+ *
+ * @author Belegkarnil
+ */
+public class RemoteStrategy extends StrategyAdapter{
+	private static final long GRACE = 1000; // the game interrupts the turn first, the worker is destroyed if it does not
+
+	private final WorkerPool pool;
+	private final String type;
+	private volatile Game game;
+	private Worker worker;
+
+	/**
+	 * Construct a remote strategy that uses the default pool (see {@link WorkerPool#getDefault()})
+	 *
+	 * @param type the class of the strategy, it requires a public constructor without parameters
+	 */
+	public RemoteStrategy(Class<? extends Strategy> type){
+		this(WorkerPool.getDefault(), type.getName());
+	}
+
+	/**
+	 * Construct a remote strategy
+	 *
+	 * @param pool the pool of workers
+	 * @param type the class name of the strategy, it requires a public constructor without parameters
+	 */
+	public RemoteStrategy(WorkerPool pool, String type){
+		if(pool == null) throw new NullPointerException("The pool cannot be null");
+		if(type == null) throw new NullPointerException("The strategy cannot be null");
+		this.pool = pool;
+		this.type = type;
+	}
+
+	/**
+	 * Get the class name of the hosted strategy
+	 *
+	 * @return the class name
+	 */
+	public String getType(){
+		return type;
+	}
+
+	/**
+	 * Override the {@link Strategy#register(Game)} and remember the game, the worker is leased at the first turn
+	 *
+	 * @param game see {@link Strategy#register(Game)}
+	 */
+	@Override
+	public void register(Game game){
+		this.game = game;
+	}
+
+	/**
+	 * Override the {@link Strategy#unregister(Game)} and give the worker back to the pool
+	 *
+	 * @param game see {@link Strategy#unregister(Game)}
+	 */
+	@Override
+	public synchronized void unregister(Game game){
+		this.game = null;
+		if(worker == null) return;
+		try{
+			worker.reset();
+			pool.release(worker);
+		}catch(IOException e){
+			pool.discard(worker);
+		}catch(InterruptedException e){
+			pool.discard(worker);
+			Thread.currentThread().interrupt();
+		}
+		worker = null;
+	}
+
+	/**
+	 * Override the {@link Strategy#plays(Player, Board, Player)} and ask the action to the worker
+	 *
+	 * @param myself   see {@link Strategy#plays}
+	 * @param board    see {@link Strategy#plays}
+	 * @param opponent see {@link Strategy#plays}
+	 * @return the action of the hosted strategy, or null if the turn is interrupted
+	 * @throws IllegalStateException if the strategy is not registered or the worker fails
+	 */
+	@Override
+	public synchronized Action plays(Player myself, Board board, Player opponent){
+		final Game game = this.game;
+		if(game == null) throw new IllegalStateException("A remote strategy plays within a registered game");
+		try{
+			if(worker == null){
+				final Worker leased = pool.acquire();
+				try{
+					leased.init(type, myself.getName(), opponent.getName(), board.getSize(), game);
+				}catch(IOException e){
+					pool.discard(leased);
+					throw e;
+				}
+				worker = leased;
+			}
+			return worker.play(game.getFirstPlayer() == myself ? 0 : 1, game.snapshot(), game.getTimeout() * 1000L + GRACE);
+		}catch(InterruptedException e){
+			recycle();
+			Thread.currentThread().interrupt();
+			return null;
+		}catch(IOException e){
+			recycle();
+			throw new IllegalStateException("The worker of " + type + " failed: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Override the {@link Strategy#isWarmable()}, the hosted strategy runs in another JVM and an interrupted turn destroys its worker
+	 *
+	 * @return false
+	 */
+	@Override
+	public boolean isWarmable(){
+		return false;
+	}
+
+	/*
+	 * Forget a worker that crashed or was destroyed, a worker that only reported an exception of the strategy is kept
+	 */
+	private void recycle(){
+		if(worker != null && !worker.isAlive()){
+			pool.discard(worker);
+			worker = null;
+		}
+	}
+}
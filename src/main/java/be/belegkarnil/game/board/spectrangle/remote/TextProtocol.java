@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.GameState;
+import be.belegkarnil.game.board.spectrangle.Piece;
+
+import java.awt.Point;
+
+/**
+ * This class defines the keywords and the shared encodings of the text protocol (see {@link ProtocolStrategy} for the specification):
+ * a piece is written with its name, a hand is a comma separated list of pieces (- if it is empty), a cell is - if it is free or its
+ * piece and rotation separated by a colon.
+ *
+ * @author Belegkarnil
+ */
+final class TextProtocol{
+	static final String HELLO = "spectrangle", HELLO_OK = "spectrangleok", ID = "id", NAME = "name";
+	static final String NEW_GAME = "newgame", IS_READY = "isready", READY_OK = "readyok";
+	static final String POSITION = "position", GO = "go", MOVE_TIME = "movetime", STOP = "stop", QUIT = "quit";
+	static final String BEST_MOVE = "bestmove", SKIP = "skip", REPLACE = "replace";
+	static final String ROUND = "round", TURN = "turn", PLAYER = "player", CELLS = "cells", BAG = "bag", HANDS = "hands";
+	static final String SCORES = "scores", SKIPS = "skips", WINS = "wins";
+	static final String NONE = "-";
+
+	private TextProtocol(){
+	}
+
+	/**
+	 * Split a line into its tokens
+	 */
+	static String[] tokens(String line){
+		final String trimmed = line.trim();
+		return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+	}
+
+	/**
+	 * Write the position command of a state, for the player of the given index (0 if it starts the round)
+	 */
+	static String position(GameState state, int player){
+		final StringBuilder line = new StringBuilder(POSITION);
+		line.append(' ').append(ROUND).append(' ').append(state.getRound());
+		line.append(' ').append(TURN).append(' ').append(state.getTurn());
+		line.append(' ').append(PLAYER).append(' ').append(player);
+		line.append(' ').append(CELLS);
+		final int cells = state.getBoardSize() * state.getBoardSize();
+		for(int cell = 0; cell < cells; cell++){
+			final Piece piece = state.getPiece(cell);
+			line.append(' ');
+			if(piece == null) line.append(NONE);
+			else line.append(piece.name()).append(':').append(state.getRotation(cell));
+		}
+		line.append(' ').append(BAG).append(' ').append(state.getBagSize());
+		line.append(' ').append(HANDS).append(' ').append(hand(state.getPieces(0))).append(' ').append(hand(state.getPieces(1)));
+		line.append(' ').append(SCORES).append(' ').append(state.getScore(0)).append(' ').append(state.getScore(1));
+		line.append(' ').append(SKIPS).append(' ').append(state.countSkip(0)).append(' ').append(state.countSkip(1));
+		line.append(' ').append(WINS).append(' ').append(state.countWin(0)).append(' ').append(state.countWin(1));
+		return line.toString();
+	}
+
+	private static String hand(Piece[] pieces){
+		if(pieces.length == 0) return NONE;
+		final StringBuilder hand = new StringBuilder();
+		for(Piece piece : pieces){
+			if(hand.length() > 0) hand.append(',');
+			hand.append(piece.name());
+		}
+		return hand.toString();
+	}
+
+	/**
+	 * Read a hand written by {@link TextProtocol#position(GameState, int)}
+	 */
+	static Piece[] parseHand(String token){
+		if(NONE.equals(token)) return new Piece[0];
+		final String[] names = token.split(",");
+		final Piece[] pieces = new Piece[names.length];
+		for(int i = 0; i < names.length; i++) pieces[i] = parsePiece(names[i]);
+		return pieces;
+	}
+
+	/**
+	 * Read a piece name
+	 *
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	static Piece parsePiece(String name){
+		try{
+			return Piece.valueOf(name);
+		}catch(IllegalArgumentException e){
+			throw new IllegalArgumentException("Unknown piece " + name);
+		}
+	}
+
+	/**
+	 * Write the bestmove answer of an action (a null action skips)
+	 */
+	static String bestMove(Action action){
+		if(action == null || action.isSkip()) return BEST_MOVE + ' ' + SKIP;
+		if(action.isReplace()) return BEST_MOVE + ' ' + REPLACE + ' ' + action.piece.name();
+		if(action.position == null) return BEST_MOVE + ' ' + SKIP;
+		return BEST_MOVE + ' ' + action.piece.name() + ' ' + action.position.x + ' ' + action.position.y + ' ' + action.rotation;
+	}
+
+	/**
+	 * Read a bestmove answer
+	 *
+	 * @throws IllegalArgumentException if the answer is malformed
+	 */
+	static Action parseBestMove(String[] tokens){
+		if(tokens.length < 2 || !BEST_MOVE.equals(tokens[0])) throw new IllegalArgumentException("Not a bestmove answer");
+		if(SKIP.equals(tokens[1])) return new Action();
+		if(REPLACE.equals(tokens[1])){
+			if(tokens.length != 3) throw new IllegalArgumentException("A replace move requires a piece");
+			return new Action(parsePiece(tokens[2]));
+		}
+		if(tokens.length != 5) throw new IllegalArgumentException("A move requires a piece, a position and a rotation");
+		try{
+			return new Action(parsePiece(tokens[1]), new Point(Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3])), Integer.parseInt(tokens[4]));
+		}catch(NumberFormatException e){
+			throw new IllegalArgumentException("Invalid move: " + e.getMessage());
+		}
+	}
+}
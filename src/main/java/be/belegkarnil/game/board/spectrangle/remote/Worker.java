@@ -0,0 +1,237 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.GameState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is the handle of the engine on a worker JVM (see {@link WorkerMain}): it sends the requests through the standard input of
+ * the process and a daemon thread reads the responses from its standard output, so that a request can wait with a timeout.
+ * A worker that does not answer in time, crashes, or is interrupted is destroyed; {@link WorkerPool} replaces it.
+ *
+ * @author Belegkarnil
+ */
+final class Worker{
+	/**
+	 * is the time (in milliseconds) allowed to the requests other than {@link Protocol#PLAY} (loading a strategy, ...)
+	 */
+	static final long REQUEST_TIMEOUT = 10000;
+
+	private static final Response DEAD = new Response(Protocol.ERROR, "The worker process ended", null);
+
+	private final Process process;
+	private final DataOutputStream out;
+	private final LinkedBlockingQueue<Response> responses;
+	private volatile boolean alive;
+
+	/**
+	 * Start a worker process, {@link Worker#awaitReady()} waits until it accepts requests
+	 *
+	 * @param command the command that starts the JVM of the worker
+	 * @throws IOException if the process cannot be started
+	 */
+	Worker(List<String> command) throws IOException{
+		this.process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+		this.responses = new LinkedBlockingQueue<Response>();
+		this.alive = true;
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+		final Thread reader = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				try{
+					while(true) responses.add(read(in));
+				}catch(EOFException e){
+					// the process ended
+				}catch(IOException e){
+					e.printStackTrace();
+				}finally{
+					alive = false;
+					responses.add(DEAD);
+				}
+			}
+		}, "Worker-" + process.pid());
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	private static Response read(DataInputStream in) throws IOException{
+		final byte status = in.readByte();
+		if(status == Protocol.ERROR) return new Response(status, in.readUTF(), null);
+		if(status == Protocol.ACTION) return new Response(status, null, Protocol.readAction(in));
+		if(status == Protocol.OK || status == Protocol.READY) return new Response(status, null, null);
+		throw new IOException("Unknown response " + status);
+	}
+
+	/**
+	 * Know if the process still runs
+	 *
+	 * @return true iff the worker can accept requests
+	 */
+	boolean isAlive(){
+		return alive && process.isAlive();
+	}
+
+	/**
+	 * Wait until the worker is started
+	 *
+	 * @throws IOException          if the worker does not start in time
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	void awaitReady() throws IOException, InterruptedException{
+		expect(Protocol.READY, REQUEST_TIMEOUT);
+	}
+
+	/**
+	 * Check that the worker answers (it also warms up the communication)
+	 *
+	 * @throws IOException          if the worker does not answer in time
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	void ping() throws IOException, InterruptedException{
+		out.writeByte(Protocol.PING);
+		out.flush();
+		expect(Protocol.OK, REQUEST_TIMEOUT);
+	}
+
+	/**
+	 * Load a strategy in the worker and register it to a copy of the game
+	 *
+	 * @param type     the class name of the strategy, it requires a public constructor without parameters
+	 * @param myself   the name of the player of the strategy
+	 * @param opponent the name of the opponent
+	 * @param size     the size of the board
+	 * @param game     the game that gives the rules
+	 * @throws IOException          if the strategy cannot be loaded or the worker does not answer in time
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	void init(String type, String myself, String opponent, int size, Game game) throws IOException, InterruptedException{
+		out.writeByte(Protocol.INIT);
+		out.writeUTF(type);
+		out.writeUTF(myself);
+		out.writeUTF(opponent);
+		out.writeInt(size);
+		out.writeInt(game.getTimeout());
+		out.writeInt(game.getWinningRounds());
+		out.writeInt(game.getSkipLimit());
+		out.writeInt(game.getSkipPenalty());
+		out.flush();
+		expect(Protocol.OK, REQUEST_TIMEOUT);
+	}
+
+	/**
+	 * Ask the action of the strategy
+	 *
+	 * @param player  0 if the player of the strategy starts the round of the state, 1 otherwise
+	 * @param state   the current position
+	 * @param timeout the time (in milliseconds) after which the worker is destroyed
+	 * @return the action
+	 * @throws IOException          if the strategy fails or the worker does not answer in time
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	Action play(int player, GameState state, long timeout) throws IOException, InterruptedException{
+		out.writeByte(Protocol.PLAY);
+		out.writeByte(player);
+		state.write(out);
+		out.flush();
+		return expect(Protocol.ACTION, timeout).action;
+	}
+
+	/**
+	 * Unregister and forget the strategy
+	 *
+	 * @throws IOException          if the worker does not answer in time
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	void reset() throws IOException, InterruptedException{
+		out.writeByte(Protocol.RESET);
+		out.flush();
+		expect(Protocol.OK, REQUEST_TIMEOUT);
+	}
+
+	/**
+	 * Ask the worker to stop, then destroy it if it does not stop soon
+	 */
+	void close(){
+		try{
+			out.writeByte(Protocol.EXIT);
+			out.flush();
+			if(!process.waitFor(REQUEST_TIMEOUT, TimeUnit.MILLISECONDS)) destroy();
+		}catch(IOException e){
+			destroy();
+		}catch(InterruptedException e){
+			destroy();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Kill the process
+	 */
+	void destroy(){
+		alive = false;
+		process.destroyForcibly();
+	}
+
+	private Response expect(byte status, long timeout) throws IOException, InterruptedException{
+		final Response response;
+		try{
+			response = responses.poll(timeout, TimeUnit.MILLISECONDS);
+		}catch(InterruptedException e){
+			destroy(); // the answer would be read by the next request
+			throw e;
+		}
+		if(response == null){
+			destroy();
+			throw new IOException("The worker does not answer within " + timeout + " ms");
+		}
+		if(response == DEAD) throw new IOException(DEAD.message);
+		if(response.status == Protocol.ERROR) throw new IOException(response.message);
+		if(response.status != status){
+			destroy();
+			throw new IOException("Unexpected response " + response.status);
+		}
+		return response;
+	}
+
+	private static final class Response{
+		private final byte status;
+		private final String message;
+		private final Action action;
+
+		private Response(byte status, String message, Action action){
+			this.status = status;
+			this.message = message;
+			this.action = action;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.GameState;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.strategy.SkipStrategy;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * This class is the entry point of a worker JVM: it hosts a single strategy at a time and answers the requests of the engine
+ * (see {@link Protocol}) read from its standard input on its standard output.
+ * The strategy plays against a copy of the game ({@link Game#restore(GameState, Player)} at each request), so it receives the same
+ * arguments as in the engine. The standard output of the strategy is redirected to the standard error, which the engine inherits.
+ * The worker stops when the engine closes its standard input or after an {@link Error} of the strategy.
+ *
+ * @author Belegkarnil
+ */
+public final class WorkerMain{
+	private final DataInputStream in;
+	private final DataOutputStream out;
+	private Strategy strategy;
+	private Game game;
+	private Board board;
+	private Player myself, opponent;
+
+	private WorkerMain(DataInputStream in, DataOutputStream out){
+		this.in = in;
+		this.out = out;
+	}
+
+	/**
+	 * Run the worker until the engine stops it
+	 *
+	 * @param args unused
+	 * @throws IOException if the communication with the engine fails
+	 */
+	public static void main(String[] args) throws IOException{
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+		System.setOut(System.err);
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+		new Board(); // load the game classes before announcing the worker
+		out.writeByte(Protocol.READY);
+		out.flush();
+		try{
+			new WorkerMain(in, out).serve();
+		}catch(EOFException e){
+			// the engine is gone
+		}
+		System.exit(0);
+	}
+
+	private void serve() throws IOException{
+		while(true){
+			final byte request = in.readByte();
+			try{
+				switch(request){
+					case Protocol.INIT:
+						init();
+						out.writeByte(Protocol.OK);
+						break;
+					case Protocol.PLAY:
+						final Action action = play();
+						out.writeByte(Protocol.ACTION);
+						Protocol.writeAction(out, action);
+						break;
+					case Protocol.RESET:
+						reset();
+						out.writeByte(Protocol.OK);
+						break;
+					case Protocol.PING:
+						out.writeByte(Protocol.OK);
+						break;
+					case Protocol.EXIT:
+						reset();
+						return;
+					default:
+						throw new IOException("Unknown request " + request);
+				}
+			}catch(IOException e){
+				throw e;
+			}catch(Exception e){
+				out.writeByte(Protocol.ERROR);
+				out.writeUTF(String.valueOf(e));
+			}catch(Error e){
+				out.writeByte(Protocol.ERROR);
+				out.writeUTF(String.valueOf(e));
+				out.flush();
+				throw e; // the worker cannot be trusted anymore
+			}
+			out.flush();
+		}
+	}
+
+	private void init() throws IOException, ReflectiveOperationException{
+		final String type = in.readUTF();
+		final String first = in.readUTF(), second = in.readUTF();
+		final int size = in.readInt();
+		final int timeout = in.readInt(), rounds = in.readInt(), skipLimit = in.readInt(), skipPenalty = in.readInt();
+		reset();
+		strategy = Class.forName(type).asSubclass(Strategy.class).getConstructor().newInstance();
+		board = new Board(size);
+		myself = new Player(first, strategy);
+		opponent = new Player(second, new SkipStrategy());
+		game = new Game(board, myself, opponent, timeout, rounds, skipLimit, skipPenalty);
+		strategy.register(game);
+	}
+
+	private Action play() throws IOException{
+		final int player = in.readByte();
+		final GameState state = GameState.read(in);
+		if(strategy == null) throw new IllegalStateException("No strategy is loaded");
+		game.restore(state, player == 0 ? myself : opponent);
+		return strategy.plays(myself, board, opponent);
+	}
+
+	private void reset(){
+		if(strategy != null){
+			final Strategy previous = strategy;
+			strategy = null;
+			previous.unregister(game);
+		}
+		game = null;
+		board = null;
+		myself = null;
+		opponent = null;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class keeps a number of started and warmed up worker JVMs (see {@link WorkerMain}), so that a {@link RemoteStrategy} does not
+ * wait for a JVM to start. A worker is leased for a whole game; when it is returned, destroyed or found dead, a background thread
+ * starts another one, so the pool always comes back to its size.
+ * The workers run the classpath of the engine with the same JVM.
+ *
+ * @author Belegkarnil
+ */
+public class WorkerPool implements AutoCloseable{
+	/**
+	 * is the system property that gives the size of the default pool
+	 */
+	public static final String PROPERTY = "spectrangle.workers";
+	/**
+	 * is the default number of idle workers
+	 */
+	public static final int DEFAULT_SIZE = 2;
+
+	private static final int WARMUP = 1000; // round trips that warm up the communication of a new worker
+	private static WorkerPool instance = null;
+
+	private final int size;
+	private final List<String> command;
+	private final LinkedBlockingQueue<Worker> idle;
+	private final ExecutorService starter;
+	private volatile boolean closed;
+
+	/**
+	 * Construct a pool of workers without JVM options
+	 *
+	 * @param size the number of idle workers
+	 */
+	public WorkerPool(int size){
+		this(size, Collections.<String>emptyList());
+	}
+
+	/**
+	 * Construct a pool of workers and start them in background
+	 *
+	 * @param size    the number of idle workers
+	 * @param options the options of the JVM of the workers (e.g. -Xmx256m to bound the heap of a strategy)
+	 */
+	public WorkerPool(int size, List<String> options){
+		if(size < 0) throw new IllegalArgumentException("The size of the pool cannot be negative");
+		this.size = size;
+		this.command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(options);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(WorkerMain.class.getName());
+		this.idle = new LinkedBlockingQueue<Worker>();
+		this.closed = false;
+		this.starter = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable runnable){
+				final Thread thread = new Thread(runnable, "WorkerPool-starter");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		for(int i = 0; i < size; i++) replenish();
+	}
+
+	/**
+	 * Get the default pool, its size is given by the system property {@link WorkerPool#PROPERTY}
+	 *
+	 * @return the default pool
+	 */
+	public static synchronized WorkerPool getDefault(){
+		if(instance == null) instance = new WorkerPool(Integer.getInteger(PROPERTY, DEFAULT_SIZE));
+		return instance;
+	}
+
+	/**
+	 * Get the number of idle workers the pool keeps
+	 *
+	 * @return the size
+	 */
+	public int getSize(){
+		return size;
+	}
+
+	/**
+	 * Count the workers that are started and not leased
+	 *
+	 * @return the number of idle workers
+	 */
+	public int countIdle(){
+		return idle.size();
+	}
+
+	/**
+	 * Lease a worker, started now if none is idle
+	 *
+	 * @return a worker ready to accept requests
+	 * @throws IOException          if a worker cannot be started
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	Worker acquire() throws IOException, InterruptedException{
+		if(closed) throw new IllegalStateException("The pool is closed");
+		Worker worker;
+		while((worker = idle.poll()) != null){
+			replenish();
+			if(worker.isAlive()) return worker;
+			worker.destroy();
+		}
+		return start();
+	}
+
+	/**
+	 * Give back a worker leased by {@link WorkerPool#acquire()}, it is reused if it is still alive
+	 *
+	 * @param worker the worker
+	 */
+	void release(Worker worker){
+		if(closed || !worker.isAlive() || idle.size() >= size){
+			discard(worker);
+		}else{
+			idle.add(worker);
+		}
+	}
+
+	/**
+	 * Destroy a worker leased by {@link WorkerPool#acquire()} (after a crash or a timeout)
+	 *
+	 * @param worker the worker
+	 */
+	void discard(Worker worker){
+		if(worker.isAlive()) worker.close();
+		worker.destroy();
+	}
+
+	/**
+	 * Stop all the idle workers, the leased workers are stopped when they are released
+	 */
+	@Override
+	public void close(){
+		closed = true;
+		starter.shutdownNow();
+		Worker worker;
+		while((worker = idle.poll()) != null) worker.close();
+	}
+
+	private Worker start() throws IOException, InterruptedException{
+		final Worker worker = new Worker(command);
+		try{
+			worker.awaitReady();
+			for(int i = 0; i < WARMUP; i++) worker.ping();
+		}catch(IOException e){
+			worker.destroy();
+			throw e;
+		}
+		return worker;
+	}
+
+	private void replenish(){
+		if(closed) return;
+		starter.execute(new Runnable(){
+			@Override
+			public void run(){
+				if(closed || idle.size() >= size) return;
+				try{
+					final Worker worker = start();
+					if(closed) worker.close();
+					else idle.add(worker);
+				}catch(IOException e){
+					e.printStackTrace();
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+	}
+}
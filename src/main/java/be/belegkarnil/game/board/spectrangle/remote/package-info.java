@@ -0,0 +1,8 @@
+/**
+ * Contains the out-of-process hosting of strategies: worker JVMs, their pool, the binary protocol and the proxy strategy of the engine.
+ *
+ * @author Belegkarnil
+ * @version 0.9
+ * @since 2025-04-22
+ */
+package be.belegkarnil.game.board.spectrangle.remote;
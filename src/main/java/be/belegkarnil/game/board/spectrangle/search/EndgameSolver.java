@@ -0,0 +1,217 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.search;
+
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+/**
+ * This class solves a round exactly once the bag is empty: no chance event remains and both hands are known.
+ * It is an alpha-beta search with a {@link TranspositionTable} keyed by the {@link Zobrist} hash (board, hands, skips, score difference,
+ * side), the table can be shared with other searches.
+ * The moves are every valid placement and the skip, with the penalty and the skip limit of {@link Game}.
+ * The value of a finished round is {@link EndgameSolver#WIN} plus the score difference for the winner (the opposite for the loser),
+ * so the solver first secures the round then maximizes the margin.
+ * Strategies opt in by calling {@link EndgameSolver#solve(Position, long)} when {@link Position#isBagEmpty()}.
+ *
+ * @author Belegkarnil
+ */
+public class EndgameSolver{
+	/**
+	 * is the value of a won round (without the score difference)
+	 */
+	public static final int WIN = 100000;
+	/**
+	 * is the default number of entries (log2) of the transposition table
+	 */
+	public static final int DEFAULT_TABLE_BITS = 18;
+
+	private static final int CHECK_INTERVAL = 1023;
+
+	private final TranspositionTable table;
+	private Position[] positions;
+	private int[][] moves;
+	private int[][] scores;
+	private long deadline, nodes;
+	private boolean aborted;
+	private int value, rootMove;
+
+	/**
+	 * Construct a solver with a transposition table of 2^{@link EndgameSolver#DEFAULT_TABLE_BITS} entries
+	 */
+	public EndgameSolver(){
+		this(DEFAULT_TABLE_BITS);
+	}
+
+	/**
+	 * Construct a solver
+	 *
+	 * @param tableBits the number of entries (log2) of the transposition table
+	 */
+	public EndgameSolver(int tableBits){
+		this(new TranspositionTable(tableBits));
+	}
+
+	/**
+	 * Construct a solver that shares a transposition table
+	 *
+	 * @param table the transposition table
+	 */
+	public EndgameSolver(TranspositionTable table){
+		if(table == null) throw new NullPointerException("The table cannot be null");
+		this.table = table;
+		this.positions = new Position[0];
+	}
+
+	/**
+	 * Get the transposition table
+	 *
+	 * @return the table of the solver
+	 */
+	public TranspositionTable getTable(){
+		return table;
+	}
+
+	/**
+	 * Know if the solver applies to a position
+	 *
+	 * @param position the position
+	 * @return true iff the bag is empty and the round is not over
+	 */
+	public static boolean isApplicable(Position position){
+		return position.isBagEmpty() && !position.isRoundOver();
+	}
+
+	/**
+	 * Solve a position
+	 *
+	 * @param position the position, the bag must be empty
+	 * @param deadline the time (see {@link System#nanoTime()}) at which the search gives up
+	 * @return the best move of the side that has to play, or {@link Position#NO_MOVE} if the position is not solved before the deadline
+	 */
+	public int solve(Position position, long deadline){
+		if(!isApplicable(position)) return Position.NO_MOVE;
+		final int plies = Rules.CELLS + 2 * position.getSkipLimit() + 2;
+		if(positions.length < plies){
+			positions = new Position[plies];
+			moves = new int[plies][Position.MAX_MOVES + 1];
+			scores = new int[plies][Position.MAX_MOVES + 1];
+			for(int i = 0; i < plies; i++) positions[i] = new Position();
+		}
+		this.deadline = deadline;
+		this.aborted = false;
+		this.nodes = 0;
+		table.newSearch();
+		positions[0].copy(position);
+		value = search(positions[0], -2 * WIN, 2 * WIN, 0);
+		return aborted ? Position.NO_MOVE : rootMove;
+	}
+
+	/**
+	 * Get the value of the last position solved
+	 *
+	 * @return the value for the side that has to play, greater than 0 iff it wins the round
+	 */
+	public int getValue(){
+		return value;
+	}
+
+	/**
+	 * Get the number of positions visited by the last call to {@link EndgameSolver#solve(Position, long)}
+	 *
+	 * @return the number of nodes
+	 */
+	public long countNodes(){
+		return nodes;
+	}
+
+	/**
+	 * Empty the transposition table
+	 */
+	public void clear(){
+		table.clear();
+	}
+
+	private static int evaluate(Position position){
+		final int side = position.getSide();
+		final int difference = position.getScore(side) - position.getScore(side ^ 1);
+		return position.getWinner() == side ? WIN + difference : difference - WIN;
+	}
+
+	private int search(Position position, int alpha, int beta, int ply){
+		if((++nodes & CHECK_INTERVAL) == 0 && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) aborted = true;
+		if(aborted) return 0;
+		if(position.isRoundOver()) return evaluate(position);
+
+		final long key = Zobrist.hash(position);
+		final long entry = table.probe(key);
+		int hashMove = Position.NO_MOVE;
+		if(entry != TranspositionTable.MISS){
+			final int stored = TranspositionTable.scoreOf(entry), bound = TranspositionTable.boundOf(entry);
+			// the root is always searched in order to know its best move
+			if(ply > 0 && (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && stored >= beta) || (bound == TranspositionTable.UPPER && stored <= alpha))) return stored;
+			hashMove = TranspositionTable.moveOf(entry);
+		}
+
+		final int[] list = moves[ply];
+		final int[] score = scores[ply];
+		int count = position.generate(list);
+		list[count++] = Position.SKIP;
+		for(int i = 0; i < count; i++){
+			final int move = list[i];
+			if(move == hashMove) score[i] = Integer.MAX_VALUE;
+			else if(move == Position.SKIP) score[i] = Integer.MIN_VALUE;
+			else score[i] = position.score(Position.pieceOf(move), Position.cellOf(move));
+			for(int j = i; j > 0 && score[j] > score[j - 1]; j--){
+				final int tmpScore = score[j];
+				score[j] = score[j - 1];
+				score[j - 1] = tmpScore;
+				final int tmpMove = list[j];
+				list[j] = list[j - 1];
+				list[j - 1] = tmpMove;
+			}
+		}
+
+		final int original = alpha;
+		final Position child = positions[ply + 1];
+		int best = Integer.MIN_VALUE, bestMove = list[0];
+		for(int i = 0; i < count; i++){
+			child.copy(position);
+			child.play(list[i], Rules.NONE);
+			final int value = -search(child, -beta, -alpha, ply + 1);
+			if(aborted) return 0;
+			if(value > best){
+				best = value;
+				bestMove = list[i];
+				if(value > alpha){
+					alpha = value;
+					if(alpha >= beta) break;
+				}
+			}
+		}
+
+		if(ply == 0) rootMove = bestMove;
+		final int bound = best <= original ? TranspositionTable.UPPER : (best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT);
+		// every remaining ply is searched, the number of empty cells measures the work saved by the entry
+		table.store(key, best, Rules.CELLS - Long.bitCount(position.getOccupied()), bound, bestMove);
+		return best;
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.search;
+
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is a precomputed book of the first move of a round: the board is empty, so the decision only depends on the hand of the
+ * player that starts the round ({@link Game#INITIAL_PIECES} pieces, the hand of the opponent is ignored).
+ * The book is a binary file generated offline by {@link OpeningBookGenerator}: a header (magic number, version, number of hands)
+ * followed by an entry per hand, indexed by the combinatorial rank of the hand (see {@link OpeningBook#rank(long)}).
+ * An entry is the move (see {@link Position#move(int, int, int)}) and the rate of won rounds (in permille) measured by the generator.
+ * The file is mapped in memory, so a lookup costs a single read.
+ * The default book is the file given by the system property {@link OpeningBook#PROPERTY}, strategies use it when it is set.
+ *
+ * @author Belegkarnil
+ */
+public class OpeningBook{
+	/**
+	 * is the system property that gives the path of the default book
+	 */
+	public static final String PROPERTY = "spectrangle.book";
+	/**
+	 * is the number of distinct hands of the player that starts a round
+	 */
+	public static final int HANDS = binomial(Rules.PIECES, Game.INITIAL_PIECES);
+
+	static final int MAGIC = 0x53504F42; // SPOB
+	static final int VERSION = 1;
+	static final int HEADER = 3 * Integer.BYTES;
+	static final int ENTRY = 2 * Short.BYTES;
+	static final int NO_ENTRY = 0xFFFF;
+
+	private static final int[][] BINOMIAL = new int[Rules.PIECES + 1][Game.INITIAL_PIECES + 1];
+	private static OpeningBook instance = null;
+	private static boolean loaded = false;
+
+	static{
+		for(int n = 0; n <= Rules.PIECES; n++){
+			for(int k = 0; k <= Game.INITIAL_PIECES; k++) BINOMIAL[n][k] = binomial(n, k);
+		}
+	}
+
+	private final ByteBuffer buffer;
+
+	private OpeningBook(ByteBuffer buffer) throws IOException{
+		this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+		if(buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC) throw new IOException("This file is not an opening book");
+		if(buffer.getInt(Integer.BYTES) != VERSION) throw new IOException("Unsupported version of opening book " + buffer.getInt(Integer.BYTES));
+		if(buffer.getInt(2 * Integer.BYTES) != HANDS || buffer.capacity() < HEADER + HANDS * ENTRY)
+			throw new IOException("The opening book is truncated or does not match the pieces");
+	}
+
+	/**
+	 * Map an opening book in memory
+	 *
+	 * @param path the path of the book
+	 * @return the opening book
+	 * @throws IOException if the file cannot be read or is not a valid book
+	 */
+	public static OpeningBook open(Path path) throws IOException{
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+			return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Get the default book, opened once from the system property {@link OpeningBook#PROPERTY}
+	 *
+	 * @return the book or null if the property is not set or the book cannot be opened
+	 */
+	public static synchronized OpeningBook getDefault(){
+		if(!loaded){
+			loaded = true;
+			final String path = System.getProperty(PROPERTY);
+			if(path != null){
+				try{
+					instance = open(Paths.get(path));
+				}catch(IOException e){
+					e.printStackTrace();
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Get the rank of a hand among the hands of {@link Game#INITIAL_PIECES} pieces (combinatorial number system)
+	 *
+	 * @param hand the mask of the pieces
+	 * @return the rank, between 0 and {@link OpeningBook#HANDS} - 1
+	 */
+	public static int rank(long hand){
+		if(Long.bitCount(hand) != Game.INITIAL_PIECES || (hand & ~Rules.ALL_PIECES) != 0)
+			throw new IllegalArgumentException("A hand has " + Game.INITIAL_PIECES + " pieces");
+		int rank = 0, k = 1;
+		for(long bits = hand; bits != 0; bits &= bits - 1) rank += BINOMIAL[Long.numberOfTrailingZeros(bits)][k++];
+		return rank;
+	}
+
+	/**
+	 * Get the hand of a rank, see {@link OpeningBook#rank(long)}
+	 *
+	 * @param rank the rank, between 0 and {@link OpeningBook#HANDS} - 1
+	 * @return the mask of the pieces
+	 */
+	public static long unrank(int rank){
+		if(rank < 0 || rank >= HANDS) throw new IllegalArgumentException("The rank must be between 0 and " + (HANDS - 1));
+		long hand = 0;
+		int piece = Rules.PIECES;
+		for(int k = Game.INITIAL_PIECES; k > 0; k--){
+			do{
+				piece--;
+			}while(BINOMIAL[piece][k] > rank);
+			rank -= BINOMIAL[piece][k];
+			hand |= 1L << piece;
+		}
+		return hand;
+	}
+
+	/**
+	 * Know if the book applies to a position
+	 *
+	 * @param position the position
+	 * @return true iff the board is empty and the side to play has {@link Game#INITIAL_PIECES} pieces
+	 */
+	public static boolean isApplicable(Position position){
+		return position.isFirstMove() && Long.bitCount(position.getHand(position.getSide())) == Game.INITIAL_PIECES;
+	}
+
+	/**
+	 * Find the move of a position
+	 *
+	 * @param position the position
+	 * @return a valid move, or {@link Position#NO_MOVE} if the book does not apply or has no entry
+	 */
+	public int lookup(Position position){
+		if(!isApplicable(position)) return Position.NO_MOVE;
+		final long hand = position.getHand(position.getSide());
+		final int move = buffer.getShort(HEADER + rank(hand) * ENTRY) & 0xFFFF;
+		if(move == NO_ENTRY || !Position.isPlacement(move)) return Position.NO_MOVE;
+		final int piece = Position.pieceOf(move);
+		if((hand & (1L << piece)) == 0 || !position.canPlace(piece, Position.cellOf(move), Position.rotationOf(move))) return Position.NO_MOVE;
+		return move;
+	}
+
+	/**
+	 * Get the rate of won rounds of the move of a position, measured by the generator
+	 *
+	 * @param position the position
+	 * @return the rate in permille, or -1 if the book does not apply
+	 */
+	public int getWinRate(Position position){
+		if(!isApplicable(position)) return -1;
+		return buffer.getShort(HEADER + rank(position.getHand(position.getSide())) * ENTRY + Short.BYTES);
+	}
+
+	private static int binomial(int n, int k){
+		if(k < 0 || k > n) return 0;
+		long value = 1;
+		for(int i = 0; i < k; i++) value = value * (n - i) / (i + 1);
+		return (int) value;
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.search;
+
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+import be.belegkarnil.game.board.spectrangle.strategy.GreedyStrategy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class generates an {@link OpeningBook} offline.
+ * For each hand, every first move is evaluated by self-play: the hand of the opponent and the draws are sampled, then both sides follow
+ * {@link GreedyStrategy} until the end of the round. Moves that are equivalent by symmetry (see {@link Symmetry}) or that show the
+ * same colors are evaluated once, all the moves share the same samples (common random numbers), and only the best moves of a first
+ * pass (a quarter of the playouts) are evaluated by the remaining playouts.
+ * The hands are evaluated in parallel; the generator is deterministic for a given seed.
+ * Usage: {@code OpeningBookGenerator <book> [playouts] [threads] [hands]}, the optional number of hands generates a partial book
+ * (the other hands have no entry).
+ *
+ * @author Belegkarnil
+ */
+public class OpeningBookGenerator{
+	/**
+	 * is the default number of playouts of the best moves
+	 */
+	public static final int DEFAULT_PLAYOUTS = 64;
+	/**
+	 * is the seed of the samples
+	 */
+	public static final long SEED = 0x5BEC7A1619L;
+
+	private static final int FINALISTS = 8;
+	private static final int MAX_PLIES = 256;
+	private static final int BLOCK = 256;
+
+	private final int playouts;
+	private final Position position;
+	private final int[] moves, candidates;
+	private final int[] wins;
+
+	/**
+	 * Construct a generator
+	 *
+	 * @param playouts the number of playouts of the best moves (a quarter of them for the other moves)
+	 */
+	public OpeningBookGenerator(int playouts){
+		if(playouts < 4) throw new IllegalArgumentException("The number of playouts must be at least 4");
+		this.playouts = playouts;
+		this.position = new Position();
+		this.moves = new int[Position.MAX_MOVES];
+		this.candidates = new int[Position.MAX_MOVES];
+		this.wins = new int[Position.MAX_MOVES];
+	}
+
+	/**
+	 * Evaluate the first move of a hand
+	 *
+	 * @param hand the mask of the pieces of the player that starts the round
+	 * @return the best move in the 16 lowest bits and the rate of won rounds (permille) in the 16 highest bits
+	 */
+	public int evaluate(long hand){
+		position.deal(hand, 0);
+		final int count = candidates(position);
+
+		final int first = playouts / 4;
+		for(int i = 0; i < count; i++) wins[i] = simulate(hand, candidates[i], 0, first);
+		sort(count);
+		final int finalists = Math.min(count, FINALISTS);
+		for(int i = 0; i < finalists; i++) wins[i] += simulate(hand, candidates[i], first, playouts);
+		int best = 0;
+		for(int i = 1; i < finalists; i++){
+			if(wins[i] > wins[best]) best = i;
+		}
+		return (wins[best] * 1000 / playouts) << 16 | candidates[best];
+	}
+
+	/*
+	 * The placements of the hand on the empty board, one per class of symmetry and of colors
+	 */
+	private int candidates(Position root){
+		final int count = root.generate(moves);
+		final long[] keys = new long[count];
+		int size = 0;
+		final Position child = new Position();
+		for(int i = 0; i < count; i++){
+			final int move = normalize(moves[i]);
+			child.copy(root);
+			child.play(move, Rules.NONE);
+			final long key = Symmetry.key(child);
+			boolean duplicate = false;
+			for(int j = 0; j < size && !duplicate; j++) duplicate = keys[j] == key;
+			if(!duplicate){
+				keys[size] = key;
+				candidates[size++] = move;
+			}
+		}
+		return size;
+	}
+
+	/*
+	 * The lowest rotation that shows the same colors, so that the rotations of a piece of a single color are not evaluated apart
+	 */
+	private static int normalize(int move){
+		final int piece = Position.pieceOf(move);
+		final int code = Rules.code(piece, Position.rotationOf(move));
+		for(int rotation = 0; rotation < Rules.ROTATIONS; rotation++){
+			final int other = Rules.code(piece, rotation);
+			if(Rules.color(other, Board.BASE_COLOR) == Rules.color(code, Board.BASE_COLOR)
+					 && Rules.color(other, Board.LEFT_COLOR) == Rules.color(code, Board.LEFT_COLOR)
+					 && Rules.color(other, Board.RIGHT_COLOR) == Rules.color(code, Board.RIGHT_COLOR))
+				return Position.move(piece, Position.cellOf(move), rotation);
+		}
+		return move;
+	}
+
+	private void sort(int count){
+		for(int i = 1; i < count; i++){
+			for(int j = i; j > 0 && wins[j] > wins[j - 1]; j--){
+				final int tmpWins = wins[j];
+				wins[j] = wins[j - 1];
+				wins[j - 1] = tmpWins;
+				final int tmpMove = candidates[j];
+				candidates[j] = candidates[j - 1];
+				candidates[j - 1] = tmpMove;
+			}
+		}
+	}
+
+	/*
+	 * Count the won rounds of the samples [from, to) of a first move
+	 */
+	private int simulate(long hand, int move, int from, int to){
+		int won = 0;
+		for(int sample = from; sample < to; sample++){
+			final SplittableRandom random = new SplittableRandom(SEED ^ (hand * 0x9E3779B97F4A7C15L) ^ sample);
+			long pool = Rules.ALL_PIECES & ~hand, opponent = 0;
+			for(int i = 0; i < Game.INITIAL_PIECES; i++){
+				final int piece = Rules.select(pool, random.nextInt(Long.bitCount(pool)));
+				pool &= ~(1L << piece);
+				opponent |= 1L << piece;
+			}
+			position.deal(hand, opponent);
+			play(move, random);
+			for(int plies = 0; plies < MAX_PLIES && !position.isRoundOver(); plies++) play(GreedyStrategy.select(position), random);
+			if(position.getWinner() == 0) won++;
+		}
+		return won;
+	}
+
+	private void play(int move, SplittableRandom random){
+		int drawn = Rules.NONE;
+		if(move != Position.SKIP){
+			final long bag = position.getBag();
+			if(bag != 0) drawn = Rules.select(bag, random.nextInt(Long.bitCount(bag)));
+		}
+		position.play(move, drawn);
+	}
+
+	/**
+	 * Generate a book
+	 *
+	 * @param path     the path of the book
+	 * @param playouts the number of playouts of the best moves
+	 * @param threads  the number of hands evaluated in parallel
+	 * @param hands    the number of hands to evaluate (the first ranks), {@link OpeningBook#HANDS} for a complete book
+	 * @throws IOException          if the book cannot be written
+	 * @throws InterruptedException if the generation is interrupted
+	 */
+	public static void generate(Path path, final int playouts, int threads, int hands) throws IOException, InterruptedException{
+		if(threads < 1) throw new IllegalArgumentException("The number of threads must be strictly positive");
+		if(hands < 0 || hands > OpeningBook.HANDS) throw new IllegalArgumentException("The number of hands must be between 0 and " + OpeningBook.HANDS);
+		final int[] entries = new int[OpeningBook.HANDS];
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try{
+			final List<Future<?>> futures = new ArrayList<Future<?>>();
+			for(int block = 0; block < hands; block += BLOCK){
+				final int from = block, to = Math.min(hands, block + BLOCK);
+				futures.add(executor.submit(new Runnable(){
+					@Override
+					public void run(){
+						final OpeningBookGenerator generator = new OpeningBookGenerator(playouts);
+						for(int rank = from; rank < to; rank++) entries[rank] = generator.evaluate(OpeningBook.unrank(rank));
+					}
+				}));
+			}
+			for(int i = 0; i < futures.size(); i++){
+				futures.get(i).get();
+				System.out.println("Opening book: " + Math.min(hands, (i + 1) * BLOCK) + "/" + hands + " hands");
+			}
+		}catch(ExecutionException e){
+			throw new IOException("The generation failed", e.getCause());
+		}finally{
+			executor.shutdownNow();
+		}
+
+		try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))){
+			output.writeInt(OpeningBook.MAGIC);
+			output.writeInt(OpeningBook.VERSION);
+			output.writeInt(OpeningBook.HANDS);
+			for(int rank = 0; rank < OpeningBook.HANDS; rank++){
+				if(rank < hands){
+					output.writeShort(entries[rank] & 0xFFFF);
+					output.writeShort(entries[rank] >>> 16);
+				}else{
+					output.writeShort(OpeningBook.NO_ENTRY);
+					output.writeShort(0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generate a book, see the usage in the description of the class
+	 *
+	 * @param args the path of the book, then optionally the number of playouts, of threads, and of hands
+	 * @throws IOException          if the book cannot be written
+	 * @throws InterruptedException if the generation is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException{
+		if(args.length < 1){
+			System.err.println("Usage: OpeningBookGenerator <book> [playouts] [threads] [hands]");
+			System.exit(1);
+		}
+		final int playouts = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLAYOUTS;
+		final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		final int hands = args.length > 3 ? Integer.parseInt(args[3]) : OpeningBook.HANDS;
+		generate(Paths.get(args[0]), playouts, threads, hands);
+	}
+}
@@ -0,0 +1,285 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.search;
+
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class gives the symmetries of the board (the rotations of the triangle) that keep the bonus cells, and the
+ * canonical hash of a {@link Position} under these symmetries, so that equivalent positions share a single entry of a table.
+ * The symmetries are computed from the neighbourhood of the cells ({@link Rules#neighbour(int, int)}): a symmetry maps every cell and
+ * permutes the sides (base, left, right) of each cell, so a rotated piece is mapped to another rotation of the same piece.
+ * The reflections are left out: they map a piece of three colors to its mirror image, which is not a piece of the game.
+ * Note that {@link be.belegkarnil.game.board.spectrangle.Game#canPlay} only inspects a part of the board, so the skip penalty of two
+ * equivalent positions may differ; an exact search must not rely on the values of equivalent positions.
+ *
+ * @author Belegkarnil
+ */
+public final class Symmetry{
+	/**
+	 * is the index of the identity
+	 */
+	public static final int IDENTITY = 0;
+
+	private static final int CODES = Rules.PIECES * Rules.ROTATIONS;
+	private static final int[] SIDES = {Board.BASE_COLOR, Board.LEFT_COLOR, Board.RIGHT_COLOR};
+	private static final int[][] CELL;
+	private static final int[][][] CODE; // [transform][parity of the cell][code]
+	private static final int[] INVERSE;
+
+	static{
+		final List<int[]> automorphisms = new ArrayList<int[]>();
+		final int[] order = new int[Rules.CELLS];
+		final boolean[] seen = new boolean[Rules.CELLS];
+		int size = 0;
+		order[size++] = 0;
+		seen[0] = true;
+		for(int head = 0; head < size; head++){
+			for(int side : SIDES){
+				final int neighbour = Rules.neighbour(order[head], side);
+				if(neighbour != Rules.NONE && !seen[neighbour]){
+					seen[neighbour] = true;
+					order[size++] = neighbour;
+				}
+			}
+		}
+		final int[] mapping = new int[Rules.CELLS];
+		Arrays.fill(mapping, Rules.NONE);
+		search(order, 0, mapping, new boolean[Rules.CELLS], automorphisms);
+		for(int t = automorphisms.size() - 1; t >= 0; t--){
+			if(isOdd(sides(automorphisms.get(t), 0))) automorphisms.remove(t); // a reflection
+		}
+		for(int t = 0; t < automorphisms.size(); t++){
+			if(isIdentity(automorphisms.get(t))) automorphisms.add(IDENTITY, automorphisms.remove(t));
+		}
+
+		final int count = automorphisms.size();
+		CELL = new int[count][];
+		CODE = new int[count][2][CODES];
+		INVERSE = new int[count];
+		for(int t = 0; t < count; t++){
+			CELL[t] = automorphisms.get(t);
+			for(int parity = 0; parity < 2; parity++){
+				final int[] sides = sides(CELL[t], parity);
+				for(int code = 0; code < CODES; code++) CODE[t][parity][code] = map(code, sides);
+			}
+		}
+		for(int t = 0; t < count; t++){
+			for(int u = 0; u < count; u++){
+				final int[] composition = new int[Rules.CELLS];
+				for(int cell = 0; cell < Rules.CELLS; cell++) composition[cell] = CELL[u][CELL[t][cell]];
+				if(isIdentity(composition)) INVERSE[t] = u;
+			}
+		}
+	}
+
+	private Symmetry(){
+	}
+
+	private static boolean isIdentity(int[] permutation){
+		for(int i = 0; i < permutation.length; i++){
+			if(permutation[i] != i) return false;
+		}
+		return true;
+	}
+
+	/*
+	 * Backtracking over the permutations of the cells that keep the neighbourhood and the factors
+	 */
+	private static void search(int[] order, int index, int[] mapping, boolean[] used, List<int[]> automorphisms){
+		if(index == order.length){
+			automorphisms.add(mapping.clone());
+			return;
+		}
+		final int cell = order[index];
+		for(int image = 0; image < Rules.CELLS; image++){
+			if(used[image] || Rules.factor(image) != Rules.factor(cell) || degree(image) != degree(cell)) continue;
+			boolean valid = true;
+			for(int side : SIDES){
+				final int neighbour = Rules.neighbour(cell, side);
+				if(neighbour != Rules.NONE && mapping[neighbour] != Rules.NONE && (Rules.neighbours(image) & (1L << mapping[neighbour])) == 0)
+					valid = false;
+			}
+			if(!valid) continue;
+			mapping[cell] = image;
+			used[image] = true;
+			search(order, index + 1, mapping, used, automorphisms);
+			mapping[cell] = Rules.NONE;
+			used[image] = false;
+		}
+	}
+
+	private static int degree(int cell){
+		return Long.bitCount(Rules.neighbours(cell));
+	}
+
+	private static int parity(int cell){
+		return (Rules.x(cell) + Rules.y(cell)) & 1;
+	}
+
+	/*
+	 * The permutation of the sides of the cells of a parity (i.e. an orientation), read on a cell that has three neighbours
+	 */
+	private static int[] sides(int[] mapping, int parity){
+		for(int cell = 0; cell < Rules.CELLS; cell++){
+			if(parity(cell) != parity || degree(cell) != 3) continue;
+			final int[] sides = new int[3];
+			for(int side : SIDES){
+				final int image = mapping[Rules.neighbour(cell, side)];
+				for(int other : SIDES){
+					if(Rules.neighbour(mapping[cell], other) == image) sides[side] = other;
+				}
+			}
+			return sides;
+		}
+		throw new IllegalStateException("The board has no inner cell");
+	}
+
+	private static boolean isOdd(int[] permutation){
+		int fixed = 0;
+		for(int i = 0; i < permutation.length; i++){
+			if(permutation[i] == i) fixed++;
+		}
+		return fixed == 1;
+	}
+
+	/*
+	 * The code of a rotated piece whose sides are permuted.
+	 * The rotations are tried from the current one, so that the identity keeps the rotation of the symmetric pieces.
+	 */
+	private static int map(int code, int[] sides){
+		final int[] colors = new int[3];
+		for(int side : SIDES) colors[sides[side]] = Rules.color(code, side);
+		final int piece = code / Rules.ROTATIONS;
+		for(int offset = 0; offset < Rules.ROTATIONS; offset++){
+			final int rotated = Rules.code(piece, (code + offset) % Rules.ROTATIONS);
+			if(matches(rotated, colors)) return rotated;
+		}
+		throw new IllegalStateException("No rotation matches the symmetry");
+	}
+
+	private static boolean matches(int code, int[] colors){
+		for(int side : SIDES){
+			if(Rules.color(code, side) != colors[side]) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Count the symmetries of the board
+	 *
+	 * @return the number of symmetries, including the identity
+	 */
+	public static int count(){
+		return CELL.length;
+	}
+
+	/**
+	 * Get the symmetry that cancels a symmetry
+	 *
+	 * @param transform the index of the symmetry
+	 * @return the index of the inverse symmetry
+	 */
+	public static int inverse(int transform){
+		return INVERSE[transform];
+	}
+
+	/**
+	 * Get the image of a cell
+	 *
+	 * @param transform the index of the symmetry
+	 * @param cell      the cell index
+	 * @return the image of the cell
+	 */
+	public static int cell(int transform, int cell){
+		return CELL[transform][cell];
+	}
+
+	/**
+	 * Get the image of a move
+	 *
+	 * @param transform the index of the symmetry
+	 * @param move      the move (see {@link Position#move(int, int, int)})
+	 * @return the image of the move, swaps and skips are unchanged
+	 */
+	public static int move(int transform, int move){
+		if(!Position.isPlacement(move)) return move;
+		final int cell = Position.cellOf(move);
+		final int code = CODE[transform][parity(cell)][Rules.code(Position.pieceOf(move), Position.rotationOf(move))];
+		return Position.move(code / Rules.ROTATIONS, CELL[transform][cell], code % Rules.ROTATIONS);
+	}
+
+	/**
+	 * Get the hash (see {@link Zobrist#hash(Position)}) of the image of a position
+	 *
+	 * @param position  the position
+	 * @param transform the index of the symmetry
+	 * @return the hash of the image
+	 */
+	public static long hash(Position position, int transform){
+		if(transform == IDENTITY) return Zobrist.hash(position);
+		return Zobrist.hash(position) ^ Zobrist.board(position) ^ board(position, transform);
+	}
+
+	/**
+	 * Get the symmetry that gives the canonical image of a position (the image with the lowest hash)
+	 *
+	 * @param position the position
+	 * @return the index of the symmetry
+	 */
+	public static int canonical(Position position){
+		final long hash = Zobrist.hash(position), board = Zobrist.board(position);
+		int best = IDENTITY;
+		long lowest = hash;
+		for(int t = 1; t < CELL.length; t++){
+			final long image = hash ^ board ^ board(position, t);
+			if(image < lowest){
+				lowest = image;
+				best = t;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Get the hash of the canonical image of a position, equivalent positions have the same key
+	 *
+	 * @param position the position
+	 * @return the canonical hash
+	 */
+	public static long key(Position position){
+		return hash(position, canonical(position));
+	}
+
+	private static long board(Position position, int transform){
+		long hash = 0;
+		for(long bits = position.getOccupied(); bits != 0; bits &= bits - 1){
+			final int cell = Long.numberOfTrailingZeros(bits);
+			hash ^= Zobrist.cell(CELL[transform][cell], CODE[transform][parity(cell)][position.getCode(cell)]);
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.search;
+
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * This class is a fixed-size transposition table that many threads share without any lock.
+ * Each slot is a pair of longs: the key exclusive or the data, then the data (lockless hashing of Hyatt and Mann), so a slot torn by
+ * two concurrent writes never matches a probe. The data packs the score, the best move, the depth, the generation and the bound.
+ * The slots are grouped by {@link TranspositionTable#BUCKET} (a bucket fits a cache line); a store replaces the slot of the same key,
+ * else an empty slot, else the slot with the lowest depth, older generations first.
+ * The keys are {@link Zobrist} hashes, a search calls {@link TranspositionTable#newSearch()} so that its entries replace the older ones.
+ *
+ * @author Belegkarnil
+ */
+public class TranspositionTable{
+	/**
+	 * is the number of slots per bucket
+	 */
+	public static final int BUCKET = 4;
+	/**
+	 * is the result of a probe that misses (a stored data is never 0)
+	 */
+	public static final long MISS = 0L;
+	/**
+	 * is the bound of an exact score
+	 */
+	public static final int EXACT = 1;
+	/**
+	 * is the bound of a score that is a lower bound (the search failed high)
+	 */
+	public static final int LOWER = 2;
+	/**
+	 * is the bound of a score that is an upper bound (the search failed low)
+	 */
+	public static final int UPPER = 3;
+	/**
+	 * is the maximal depth that is stored
+	 */
+	public static final int MAX_DEPTH = 0xFF;
+
+	private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final int GENERATIONS = 0x40;
+	private static final int NO_MOVE = 0xFFFF;
+
+	private final long[] slots;
+	private final long mask;
+	private volatile int generation;
+
+	/**
+	 * Construct a table
+	 *
+	 * @param bits the number of slots (log2)
+	 */
+	public TranspositionTable(int bits){
+		if(bits < 2 || bits > 28) throw new IllegalArgumentException("The table size must be between 2^2 and 2^28");
+		this.slots = new long[2 << bits];
+		this.mask = (1L << bits) / BUCKET - 1;
+		this.generation = 0;
+	}
+
+	/**
+	 * Get the number of slots
+	 *
+	 * @return the capacity of the table
+	 */
+	public int getCapacity(){
+		return slots.length / 2;
+	}
+
+	/**
+	 * Get the current generation
+	 *
+	 * @return the generation, between 0 and 63
+	 */
+	public int getGeneration(){
+		return generation;
+	}
+
+	/**
+	 * Start a new search: the entries of the previous searches are replaced first
+	 */
+	public void newSearch(){
+		generation = (generation + 1) & (GENERATIONS - 1);
+	}
+
+	/**
+	 * Empty the table, no search must use it at the same time
+	 */
+	public void clear(){
+		Arrays.fill(slots, 0L);
+		generation = 0;
+	}
+
+	/**
+	 * Find the data stored for a key
+	 *
+	 * @param key the hash of the position
+	 * @return the data (see {@link TranspositionTable#scoreOf(long)}, ...) or {@link TranspositionTable#MISS}
+	 */
+	public long probe(long key){
+		final int bucket = bucketOf(key);
+		for(int i = bucket; i < bucket + 2 * BUCKET; i += 2){
+			final long data = (long) SLOTS.getOpaque(slots, i + 1);
+			if(data != MISS && ((long) SLOTS.getOpaque(slots, i) ^ data) == key) return data;
+		}
+		return MISS;
+	}
+
+	/**
+	 * Store the result of a search
+	 *
+	 * @param key   the hash of the position
+	 * @param score the score of the position
+	 * @param depth the depth of the search, bounded by {@link TranspositionTable#MAX_DEPTH}
+	 * @param bound {@link TranspositionTable#EXACT}, {@link TranspositionTable#LOWER} or {@link TranspositionTable#UPPER}
+	 * @param move  the best move or {@link Position#NO_MOVE}
+	 */
+	public void store(long key, int score, int depth, int bound, int move){
+		if(bound < EXACT || bound > UPPER) throw new IllegalArgumentException("The bound must be EXACT, LOWER or UPPER");
+		if(depth < 0) throw new IllegalArgumentException("The depth must be positive");
+		final int generation = this.generation;
+		final int bucket = bucketOf(key);
+		int victim = bucket, worst = Integer.MAX_VALUE;
+		for(int i = bucket; i < bucket + 2 * BUCKET; i += 2){
+			final long data = (long) SLOTS.getOpaque(slots, i + 1);
+			if(data == MISS){
+				if(worst > Integer.MIN_VALUE){
+					victim = i;
+					worst = Integer.MIN_VALUE;
+				}
+				continue;
+			}
+			if(((long) SLOTS.getOpaque(slots, i) ^ data) == key){
+				// keep the move of a previous search if this one has none
+				if(move == Position.NO_MOVE) move = moveOf(data);
+				victim = i;
+				break;
+			}
+			final int age = (generation - generationOf(data)) & (GENERATIONS - 1);
+			final int value = depthOf(data) - 8 * age;
+			if(value < worst){
+				victim = i;
+				worst = value;
+			}
+		}
+		final long data = pack(score, Math.min(depth, MAX_DEPTH), generation, bound, move);
+		SLOTS.setOpaque(slots, victim, key ^ data);
+		SLOTS.setOpaque(slots, victim + 1, data);
+	}
+
+	/**
+	 * Count the slots used by the current generation among the first thousand (an estimate of the load)
+	 *
+	 * @return the permill of used slots
+	 */
+	public int countUsed(){
+		final int generation = this.generation;
+		final int samples = Math.min(1000, getCapacity());
+		int used = 0;
+		for(int i = 0; i < samples; i++){
+			final long data = (long) SLOTS.getOpaque(slots, 2 * i + 1);
+			if(data != MISS && generationOf(data) == generation) used++;
+		}
+		return used * 1000 / samples;
+	}
+
+	/**
+	 * Get the score of a data
+	 *
+	 * @param data the data returned by {@link TranspositionTable#probe(long)}
+	 * @return the score
+	 */
+	public static int scoreOf(long data){
+		return (int) (data >> 32);
+	}
+
+	/**
+	 * Get the best move of a data
+	 *
+	 * @param data the data returned by {@link TranspositionTable#probe(long)}
+	 * @return the move or {@link Position#NO_MOVE}
+	 */
+	public static int moveOf(long data){
+		final int move = (int) (data >>> 16) & 0xFFFF;
+		return move == NO_MOVE ? Position.NO_MOVE : move;
+	}
+
+	/**
+	 * Get the depth of a data
+	 *
+	 * @param data the data returned by {@link TranspositionTable#probe(long)}
+	 * @return the depth
+	 */
+	public static int depthOf(long data){
+		return (int) (data >>> 8) & MAX_DEPTH;
+	}
+
+	/**
+	 * Get the bound of a data
+	 *
+	 * @param data the data returned by {@link TranspositionTable#probe(long)}
+	 * @return {@link TranspositionTable#EXACT}, {@link TranspositionTable#LOWER} or {@link TranspositionTable#UPPER}
+	 */
+	public static int boundOf(long data){
+		return (int) data & 0x3;
+	}
+
+	private static int generationOf(long data){
+		return (int) (data >>> 2) & (GENERATIONS - 1);
+	}
+
+	private static long pack(int score, int depth, int generation, int bound, int move){
+		return ((long) score << 32) | ((long) (move & NO_MOVE) << 16) | ((long) depth << 8) | ((long) generation << 2) | bound;
+	}
+
+	private int bucketOf(long key){
+		return (int) (key & mask) * 2 * BUCKET;
+	}
+}
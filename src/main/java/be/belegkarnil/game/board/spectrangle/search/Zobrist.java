@@ -0,0 +1,116 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.search;
+
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class computes the Zobrist hash of a {@link Position}: the exclusive or of a random key per rotated piece on a cell,
+ * per piece in a hand, per number of skips, for the side to move, for the side that started the round, and a mix of the score difference.
+ * The keys are generated with a fixed seed, so hashes are stable across runs.
+ *
+ * @author Belegkarnil
+ */
+public final class Zobrist{
+	private static final int CODES = Rules.PIECES * Rules.ROTATIONS;
+	private static final int MAX_SKIPS = 64;
+	private static final long[] CELLS = new long[Rules.CELLS * CODES];
+	private static final long[] HANDS = new long[2 * Rules.PIECES];
+	private static final long[] SKIPS = new long[2 * MAX_SKIPS];
+	private static final long SIDE, FIRST;
+
+	static{
+		final SplittableRandom random = new SplittableRandom(0x5BEC7A1617L);
+		for(int i = 0; i < CELLS.length; i++) CELLS[i] = random.nextLong();
+		for(int i = 0; i < HANDS.length; i++) HANDS[i] = random.nextLong();
+		for(int i = 0; i < SKIPS.length; i++) SKIPS[i] = random.nextLong();
+		SIDE = random.nextLong();
+		FIRST = random.nextLong();
+	}
+
+	private Zobrist(){
+	}
+
+	/**
+	 * Get the key of a rotated piece on a cell
+	 *
+	 * @param cell the cell index
+	 * @param code the cell code (see {@link Rules#code(int, int)})
+	 * @return the key
+	 */
+	public static long cell(int cell, int code){
+		return CELLS[cell * CODES + code];
+	}
+
+	/**
+	 * Get the key of a piece in a hand
+	 *
+	 * @param side  0 or 1
+	 * @param piece the piece ordinal
+	 * @return the key
+	 */
+	public static long hand(int side, int piece){
+		return HANDS[side * Rules.PIECES + piece];
+	}
+
+	/**
+	 * Get the hash of the board only (the rotated pieces on the cells)
+	 *
+	 * @param position the position
+	 * @return the hash
+	 */
+	public static long board(Position position){
+		long hash = 0;
+		for(long bits = position.getOccupied(); bits != 0; bits &= bits - 1){
+			final int cell = Long.numberOfTrailingZeros(bits);
+			hash ^= cell(cell, position.getCode(cell));
+		}
+		return hash;
+	}
+
+	/**
+	 * Get the hash of a position (board, hands, skips, score difference, side to move and side that started the round)
+	 *
+	 * @param position the position
+	 * @return the hash
+	 */
+	public static long hash(Position position){
+		long hash = board(position);
+		for(int side = 0; side < 2; side++){
+			for(long bits = position.getHand(side); bits != 0; bits &= bits - 1){
+				hash ^= hand(side, Long.numberOfTrailingZeros(bits));
+			}
+			hash ^= SKIPS[side * MAX_SKIPS + Math.min(position.countSkip(side), MAX_SKIPS - 1)];
+		}
+		if(position.getSide() != 0) hash ^= SIDE;
+		if(position.getFirst() != 0) hash ^= FIRST;
+		return hash ^ mix(position.getScore(0) - position.getScore(1));
+	}
+
+	private static long mix(long value){
+		// finalizer of SplitMix64
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
@@ -0,0 +1,8 @@
+/**
+ * Contains the search algorithms and data structures (hashing, transposition tables, solvers) shared by the strategies.
+ *
+ * @author Belegkarnil
+ * @version 0.9
+ * @since 2025-04-22
+ */
+package be.belegkarnil.game.board.spectrangle.search;
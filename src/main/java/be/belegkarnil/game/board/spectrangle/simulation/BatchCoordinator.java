@@ -0,0 +1,495 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.Watchdog;
+import be.belegkarnil.game.board.spectrangle.strategy.BatchStrategy;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class groups the pending turns of concurrent games into batches for a {@link BatchStrategy}.
+ * The coordinator is the {@link Strategy} given to the players of all the games: the turn of a game waits while its position is queued,
+ * a dispatcher thread gathers the queued positions then hands back each action computed by {@link BatchStrategy#plays(Player[], Board[], Player[])}.
+ * A batch is evaluated as soon as it is full, or when every registered game waits for it, or after a short linger time.
+ * The positions of the turns that time out before their batch is evaluated are dropped.
+ * <p>
+ * A batch is evaluated by a worker thread under the supervision of the dispatcher, as a turn by its {@link Game}:
+ * it must end before the earliest timeout of its turns and within the sum of their allocation quotas (see {@link Game#setAllocationLimit(long)}),
+ * otherwise the worker is interrupted and the turns of the batch fail.
+ * A worker that ignores the interrupt is reported to the {@link Watchdog} under the class name of the batch strategy, which is then quarantined.
+ * The CPU time and the allocations of the worker are not accounted to the turns (see {@link Game#setCpuTimeAccounting(boolean)}),
+ * they are counted by the coordinator (see {@link BatchCoordinator#getCpuTime()}).
+ *
+ * @author Belegkarnil
+ */
+public class BatchCoordinator implements Strategy, AutoCloseable{
+	/**
+	 * is the default maximal number of positions of a batch
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+	/**
+	 * is the default time (in milliseconds) that a batch waits for the turns of other games before its evaluation
+	 */
+	public static final long DEFAULT_LINGER = 5;
+
+	private static final long POLL = 10; // milliseconds between two readings of the allocations of the worker
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean CPU_TIME = THREADS.isThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+	private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocations();
+
+	private final BatchStrategy strategy;
+	private final int batchSize;
+	private final long linger;
+	private final LinkedBlockingQueue<Request> pending;
+	private final Set<Game> games;
+	private final Thread dispatcher;
+	private final ThreadFactory workers;
+	private ExecutorService evaluator;
+	private volatile Watchdog watchdog;
+	private volatile boolean closed;
+	private long batches, positions, timeouts, cpuTime, allocatedBytes;
+
+	/**
+	 * Construct a coordinator with the default batch size and linger time
+	 *
+	 * @param strategy the strategy that evaluates the batches
+	 */
+	public BatchCoordinator(BatchStrategy strategy){
+		this(strategy, DEFAULT_BATCH_SIZE, DEFAULT_LINGER);
+	}
+
+	/**
+	 * Construct a coordinator and start its dispatcher thread
+	 *
+	 * @param strategy  the strategy that evaluates the batches
+	 * @param batchSize the maximal number of positions of a batch
+	 * @param linger    the time (in milliseconds) that a batch waits for the turns of other games before its evaluation
+	 */
+	public BatchCoordinator(BatchStrategy strategy, int batchSize, long linger){
+		if(strategy == null) throw new NullPointerException("The strategy cannot be null");
+		if(batchSize < 1) throw new IllegalArgumentException("The batch size must be strictly positive");
+		if(linger < 0) throw new IllegalArgumentException("The linger time cannot be negative");
+		this.strategy = strategy;
+		this.batchSize = batchSize;
+		this.linger = linger;
+		this.pending = new LinkedBlockingQueue<Request>();
+		this.games = new HashSet<Game>();
+		this.watchdog = Watchdog.getDefault();
+		this.workers = new ThreadFactory(){
+			private int counter = 0;
+
+			@Override
+			public synchronized Thread newThread(Runnable runnable){
+				final Thread thread = new Thread(runnable, "Batch-" + strategy.getClass().getSimpleName() + "-" + (counter++));
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		this.dispatcher = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				dispatch();
+			}
+		}, "Batch-" + strategy.getClass().getSimpleName());
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	/**
+	 * Get the strategy that evaluates the batches
+	 *
+	 * @return the batch strategy
+	 */
+	public BatchStrategy getStrategy(){
+		return strategy;
+	}
+
+	/**
+	 * Set the watchdog that tracks the workers that ignore the cancellation of their batch, and quarantines the batch strategy
+	 *
+	 * @param watchdog the watchdog (by default, {@link Watchdog#getDefault()})
+	 */
+	public void setWatchdog(Watchdog watchdog){
+		if(watchdog == null) throw new NullPointerException("The watchdog cannot be null");
+		this.watchdog = watchdog;
+	}
+
+	/**
+	 * Get the watchdog that tracks the workers that ignore the cancellation of their batch
+	 *
+	 * @return the watchdog
+	 */
+	public Watchdog getWatchdog(){
+		return watchdog;
+	}
+
+	/**
+	 * Override the {@link Strategy#plays(Player, Board, Player)}, queue the position and wait for the evaluation of its batch
+	 *
+	 * @param myself   see {@link Strategy#plays}
+	 * @param board    see {@link Strategy#plays}
+	 * @param opponent see {@link Strategy#plays}
+	 * @return the action chosen by the batch strategy, or null if the turn is interrupted
+	 * @throws IllegalStateException if the coordinator is closed, if the batch strategy is quarantined, or if its batch fails
+	 */
+	@Override
+	public Action plays(Player myself, Board board, Player opponent){
+		if(closed) throw new IllegalStateException("The coordinator is closed");
+		if(watchdog.isQuarantined(strategy)) throw quarantineOf(strategy, watchdog);
+		final Game game = gameOf(myself);
+		final int timeout = game == null ? Game.DEFAULT_TIMEOUT : game.getTimeout();
+		final long quota = game == null ? Game.NO_ALLOCATION_LIMIT : game.getAllocationLimit();
+		final Request request = new Request(myself, board, opponent, System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout), quota);
+		pending.add(request);
+		if(closed) request.result.cancel(false); // the dispatcher may have stopped before the position is queued
+		try{
+			return request.result.get();
+		}catch(InterruptedException e){
+			request.result.cancel(false); // the dispatcher drops it
+			Thread.currentThread().interrupt();
+			return null;
+		}catch(ExecutionException e){
+			throw new IllegalStateException("The batch of " + strategy.getClass().getName() + " fails", e.getCause());
+		}
+	}
+
+	/**
+	 * Override the {@link Strategy#register(Game)}, count the game among those that feed the batches and register the batch strategy
+	 *
+	 * @param game see {@link Strategy#register(Game)}
+	 */
+	@Override
+	public void register(Game game){
+		synchronized(games){
+			games.add(game);
+		}
+		strategy.register(game);
+	}
+
+	/**
+	 * Override the {@link Strategy#unregister(Game)}, unregister the batch strategy and stop waiting for the turns of the game
+	 *
+	 * @param game see {@link Strategy#unregister(Game)}
+	 */
+	@Override
+	public void unregister(Game game){
+		strategy.unregister(game);
+		synchronized(games){
+			games.remove(game);
+		}
+	}
+
+	/**
+	 * Override the {@link Strategy#isWarmable()} with the one of the batch strategy
+	 *
+	 * @return see {@link Strategy#isWarmable()}
+	 */
+	@Override
+	public boolean isWarmable(){
+		return strategy.isWarmable();
+	}
+
+	/**
+	 * Count the batches evaluated by the strategy
+	 *
+	 * @return the number of batches
+	 */
+	public synchronized long countBatches(){
+		return batches;
+	}
+
+	/**
+	 * Count the positions evaluated by the strategy, divided by {@link BatchCoordinator#countBatches()} it is the mean batch size
+	 *
+	 * @return the number of positions
+	 */
+	public synchronized long countPositions(){
+		return positions;
+	}
+
+	/**
+	 * Count the batches cancelled because they exceeded their deadline or their allocation quota
+	 *
+	 * @return the number of cancelled batches
+	 */
+	public synchronized long countTimeouts(){
+		return timeouts;
+	}
+
+	/**
+	 * Get the CPU time consumed by the workers that evaluate the batches
+	 *
+	 * @return the CPU time in nanoseconds (0 if the JVM cannot measure it)
+	 */
+	public synchronized long getCpuTime(){
+		return cpuTime;
+	}
+
+	/**
+	 * Get the memory allocated by the workers that evaluate the batches
+	 *
+	 * @return the allocated memory in bytes (0 if the JVM cannot measure it)
+	 */
+	public synchronized long getAllocatedBytes(){
+		return allocatedBytes;
+	}
+
+	/**
+	 * Stop the dispatcher thread, the queued and later turns fail
+	 */
+	@Override
+	public void close(){
+		closed = true;
+		dispatcher.interrupt();
+	}
+
+	private static com.sun.management.ThreadMXBean allocations(){
+		if(!(THREADS instanceof com.sun.management.ThreadMXBean)) return null;
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+		if(!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) return null;
+		return threads;
+	}
+
+	private static IllegalStateException quarantineOf(Strategy strategy, Watchdog watchdog){
+		final String name = strategy.getClass().getName();
+		return new IllegalStateException(name + " is quarantined, it ignored the cancellation of " + watchdog.countViolations(name) + " batches");
+	}
+
+	private Game gameOf(Player player){
+		synchronized(games){
+			for(Game game : games){
+				if(game.getFirstPlayer() == player || game.getSecondPlayer() == player) return game;
+			}
+		}
+		return null;
+	}
+
+	private int countGames(){
+		synchronized(games){
+			return games.size();
+		}
+	}
+
+	private void dispatch(){
+		final List<Request> batch = new ArrayList<Request>(batchSize);
+		try{
+			while(!closed){
+				batch.add(pending.take());
+				pending.drainTo(batch, batchSize - batch.size());
+				final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(linger);
+				while(batch.size() < batchSize && batch.size() < countGames()){
+					final Request request = pending.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if(request == null) break;
+					batch.add(request);
+				}
+				evaluate(batch);
+				batch.clear();
+			}
+		}catch(InterruptedException e){
+			// closed
+		}
+		if(evaluator != null) evaluator.shutdownNow();
+		pending.drainTo(batch);
+		for(Request request : batch) request.result.cancel(false);
+	}
+
+	private void evaluate(List<Request> batch) throws InterruptedException{
+		// the turns that timed out meanwhile are not evaluated
+		for(Iterator<Request> iterator = batch.iterator(); iterator.hasNext(); ){
+			if(iterator.next().result.isDone()) iterator.remove();
+		}
+		final int size = batch.size();
+		if(size == 0) return;
+		if(watchdog.isQuarantined(strategy)){
+			final IllegalStateException exception = quarantineOf(strategy, watchdog);
+			for(Request request : batch) request.result.completeExceptionally(exception);
+			return;
+		}
+		final Player[] myself = new Player[size], opponents = new Player[size];
+		final Board[] boards = new Board[size];
+		long deadline = Long.MAX_VALUE, quota = 0;
+		boolean limited = ALLOCATIONS != null;
+		for(int i = 0; i < size; i++){
+			final Request request = batch.get(i);
+			myself[i] = request.myself;
+			boards[i] = request.board;
+			opponents[i] = request.opponent;
+			deadline = Math.min(deadline, request.deadline);
+			if(request.quota == Game.NO_ALLOCATION_LIMIT) limited = false; // a turn without quota lifts the quota of its batch
+			else quota += request.quota;
+		}
+		if(!limited) quota = Game.NO_ALLOCATION_LIMIT;
+		if(evaluator == null) evaluator = Executors.newSingleThreadExecutor(workers);
+		final Evaluation evaluation = new Evaluation(myself, boards, opponents);
+		final Future<Action[]> future = evaluator.submit(evaluation);
+		boolean cancelled = false;
+		try{
+			final Action[] actions = await(future, evaluation, deadline, quota);
+			if(actions == null){
+				cancelled = true;
+				final IllegalStateException exception = new IllegalStateException("The batch of " + size + " positions exceeds its allocation quota of " + quota + " bytes");
+				for(Request request : batch) request.result.completeExceptionally(exception);
+			}else if(actions.length != size){
+				throw new IllegalStateException("The strategy returns " + actions.length + " actions for " + size + " positions");
+			}else{
+				for(int i = 0; i < size; i++) batch.get(i).result.complete(actions[i]);
+			}
+		}catch(TimeoutException e){
+			cancelled = true;
+			final Thread runner = evaluation.runner;
+			e.setStackTrace(runner == null ? new StackTraceElement[0] : runner.getStackTrace());
+			for(Request request : batch) request.result.completeExceptionally(e);
+		}catch(ExecutionException e){ // a failure of the strategy is reported by the turns, it does not stop the dispatcher
+			for(Request request : batch) request.result.completeExceptionally(e.getCause());
+		}catch(IllegalStateException e){
+			for(Request request : batch) request.result.completeExceptionally(e);
+		}finally{
+			if(cancelled) cancel(future, evaluation);
+			synchronized(this){
+				batches++;
+				positions += size;
+				if(cancelled) timeouts++;
+				cpuTime += evaluation.getCpuTime();
+				allocatedBytes += evaluation.getAllocatedBytes();
+			}
+		}
+	}
+
+	/*
+	 * Wait for the evaluation of a batch until the deadline, and within the allocation quota (polled)
+	 * Return null if the allocation quota is exceeded
+	 */
+	private Action[] await(Future<Action[]> future, Evaluation evaluation, long deadline, long quota) throws InterruptedException, ExecutionException, TimeoutException{
+		while(true){
+			final long remaining = deadline - System.nanoTime();
+			if(remaining <= 0) throw new TimeoutException("The batch does not end before the earliest timeout of its turns");
+			try{
+				final Action[] actions = future.get(quota == Game.NO_ALLOCATION_LIMIT ? remaining : Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL)), TimeUnit.NANOSECONDS);
+				if(quota != Game.NO_ALLOCATION_LIMIT && evaluation.getAllocatedBytes() > quota) return null;
+				if(actions == null) throw new IllegalStateException("The strategy returns no action for " + evaluation.boards.length + " positions");
+				return actions;
+			}catch(TimeoutException e){
+				if(quota != Game.NO_ALLOCATION_LIMIT && evaluation.getAllocatedBytes() > quota) return null;
+			}
+		}
+	}
+
+	/*
+	 * Interrupt the worker of a cancelled batch, a worker that ignores it is reported to the watchdog and later batches get a new worker
+	 */
+	private void cancel(Future<Action[]> future, Evaluation evaluation) throws InterruptedException{
+		future.cancel(true);
+		evaluator.shutdownNow();
+		final ExecutorService executor = evaluator;
+		evaluator = null;
+		watchdog.watch(executor, evaluation.runner, strategy);
+	}
+
+	/*
+	 * Evaluate a batch on a worker thread and measure the CPU time and the allocations of the worker
+	 */
+	private final class Evaluation implements Callable<Action[]>{
+		private final Player[] myself, opponents;
+		private final Board[] boards;
+		private volatile Thread runner;
+		private long cpuStart, allocationStart;
+		private volatile long cpuTime = -1, allocatedBytes = -1;
+
+		private Evaluation(Player[] myself, Board[] boards, Player[] opponents){
+			this.myself = myself;
+			this.boards = boards;
+			this.opponents = opponents;
+		}
+
+		@Override
+		public Action[] call(){
+			final Thread thread = Thread.currentThread();
+			cpuStart = CPU_TIME ? THREADS.getThreadCpuTime(thread.threadId()) : 0;
+			allocationStart = ALLOCATIONS == null ? 0 : ALLOCATIONS.getThreadAllocatedBytes(thread.threadId());
+			runner = thread;
+			try{
+				return strategy.plays(myself, boards, opponents);
+			}finally{
+				cpuTime = CPU_TIME ? Math.max(0, THREADS.getThreadCpuTime(thread.threadId()) - cpuStart) : 0;
+				allocatedBytes = ALLOCATIONS == null ? 0 : Math.max(0, ALLOCATIONS.getThreadAllocatedBytes(thread.threadId()) - allocationStart);
+			}
+		}
+
+		/*
+		 * The CPU time of the evaluation, so far if it still runs
+		 */
+		private long getCpuTime(){
+			final long measured = cpuTime;
+			if(measured >= 0) return measured;
+			final Thread thread = runner;
+			if(thread == null || !CPU_TIME) return 0;
+			return Math.max(0, THREADS.getThreadCpuTime(thread.threadId()) - cpuStart);
+		}
+
+		/*
+		 * The allocations of the evaluation, so far if it still runs
+		 */
+		private long getAllocatedBytes(){
+			final long measured = allocatedBytes;
+			if(measured >= 0) return measured;
+			final Thread thread = runner;
+			if(thread == null || ALLOCATIONS == null) return 0;
+			return Math.max(0, ALLOCATIONS.getThreadAllocatedBytes(thread.threadId()) - allocationStart);
+		}
+	}
+
+	private static final class Request{
+		private final Player myself, opponent;
+		private final Board board;
+		private final long deadline, quota;
+		private final CompletableFuture<Action> result;
+
+		private Request(Player myself, Board board, Player opponent, long deadline, long quota){
+			this.myself = myself;
+			this.board = board;
+			this.opponent = opponent;
+			this.deadline = deadline;
+			this.quota = quota;
+			this.result = new CompletableFuture<Action>();
+		}
+	}
+}
@@ -0,0 +1,443 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.strategy.RandomStrategy;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class plays many independent games at once, both players following the {@link RandomStrategy} policy.
+ * It exists for mass playouts (statistics, evaluation, benchmarks) where running {@link Game}s one at a time, with an object graph,
+ * listeners, and a thread per turn, is far too slow.
+ * The state of all the games is stored as a struct of arrays (one primitive array per field, indexed by game, seat, or cell)
+ * and the games advance in lockstep: each {@link BatchSimulator#step()} plays one turn of every unfinished game.
+ * The rules are those of {@link Game} (skip limit, skip penalty, rounds won), computed by {@link Rules}.
+ * Results are reported by player: player 0 is the player that starts the first round and players swap every round, as in {@link Game}.
+ *
+ * @author Belegkarnil
+ */
+public class BatchSimulator{
+	private static final long ALL_CELLS = (1L << Rules.CELLS) - 1;
+	private static final int HAND = Game.INITIAL_PIECES;
+
+	private final int games, numWinningRounds, skipLimit, skipPenalty;
+	private final SplittableRandom random;
+
+	// per game
+	private final long[] occupied;
+	private final byte[] cells;
+	private final byte[] bag;
+	private final int[] bagSizes;
+	private final int[] rounds;
+	private final int[] turns;
+	private final boolean[] finished;
+	// per game and seat (the seat 0 plays first in the current round)
+	private final byte[] hands;
+	private final int[] handSizes;
+	private final long[] handMasks;
+	private final int[] scores;
+	private final int[] skips;
+	// per game and player
+	private final int[] wins;
+
+	// scratch
+	private final int[] order = new int[HAND];
+	private final int[] rotations = new int[Rules.ROTATIONS];
+	private final int[] valid = new int[Rules.CELLS];
+
+	private int running;
+	private long totalTurns;
+	private int stalemates;
+
+	/**
+	 * Construct a simulator for an amount of games with the default settings of {@link Game}
+	 *
+	 * @param games the number of games played simultaneously
+	 */
+	public BatchSimulator(int games){
+		this(games, new SplittableRandom());
+	}
+
+	/**
+	 * Construct a simulator for an amount of games with the default settings of {@link Game} and a seed (for reproducible results)
+	 *
+	 * @param games the number of games played simultaneously
+	 * @param seed  the seed of the random generator
+	 */
+	public BatchSimulator(int games, long seed){
+		this(games, new SplittableRandom(seed));
+	}
+
+	private BatchSimulator(int games, SplittableRandom random){
+		this(games, random, Game.DEFAULT_NUMBER_OF_WINNING_ROUNDS, Game.DEFAULT_SKIP_LIMIT, Game.DEFAULT_SKIP_PENALTY);
+	}
+
+	/**
+	 * Construct a simulator for an amount of games
+	 *
+	 * @param games            the number of games played simultaneously
+	 * @param seed             the seed of the random generator
+	 * @param numWinningRounds see {@link Game#Game(be.belegkarnil.game.board.spectrangle.Board, be.belegkarnil.game.board.spectrangle.Player, be.belegkarnil.game.board.spectrangle.Player, int, int, int, int)}
+	 * @param skipLimit        see {@link Game#Game(be.belegkarnil.game.board.spectrangle.Board, be.belegkarnil.game.board.spectrangle.Player, be.belegkarnil.game.board.spectrangle.Player, int, int, int, int)}
+	 * @param skipPenalty      see {@link Game#Game(be.belegkarnil.game.board.spectrangle.Board, be.belegkarnil.game.board.spectrangle.Player, be.belegkarnil.game.board.spectrangle.Player, int, int, int, int)}
+	 */
+	public BatchSimulator(int games, long seed, int numWinningRounds, int skipLimit, int skipPenalty){
+		this(games, new SplittableRandom(seed), numWinningRounds, skipLimit, skipPenalty);
+	}
+
+	private BatchSimulator(int games, SplittableRandom random, int numWinningRounds, int skipLimit, int skipPenalty){
+		if(games < 1) throw new IllegalArgumentException("The number of games must be strictly positive");
+		if(numWinningRounds < 1) throw new IllegalArgumentException("The number of winning rounds must be strictly positive");
+		if(skipLimit < 1) throw new IllegalArgumentException("The skip limit must be strictly positive");
+		if(skipPenalty < 0) throw new IllegalArgumentException("The skip penalty must be positive");
+		this.games = games;
+		this.random = random;
+		this.numWinningRounds = numWinningRounds;
+		this.skipLimit = skipLimit;
+		this.skipPenalty = skipPenalty;
+
+		this.occupied = new long[games];
+		this.cells = new byte[games * Rules.CELLS];
+		this.bag = new byte[games * Rules.PIECES];
+		this.bagSizes = new int[games];
+		this.rounds = new int[games];
+		this.turns = new int[games];
+		this.finished = new boolean[games];
+		this.hands = new byte[games * 2 * HAND];
+		this.handSizes = new int[games * 2];
+		this.handMasks = new long[games * 2];
+		this.scores = new int[games * 2];
+		this.skips = new int[games * 2];
+		this.wins = new int[games * 2];
+		startGames();
+	}
+
+	/**
+	 * Start a new batch of games (the results of the previous batch are discarded)
+	 */
+	public void reset(){
+		startGames();
+	}
+
+	/*
+	 * Private, as it is called by the constructor
+	 */
+	private void startGames(){
+		for(int game = 0; game < games; game++){
+			rounds[game] = 0;
+			finished[game] = false;
+			wins[2 * game] = 0;
+			wins[2 * game + 1] = 0;
+			beginRound(game);
+		}
+		running = games;
+		totalTurns = 0;
+		stalemates = 0;
+	}
+
+	/**
+	 * Play one turn of every unfinished game
+	 *
+	 * @return true iff at least one game is not finished
+	 */
+	public boolean step(){
+		for(int game = 0; game < games; game++){
+			if(!finished[game]) executeTurn(game);
+		}
+		return running > 0;
+	}
+
+	/**
+	 * Play all the games of the batch until they are finished
+	 */
+	public void run(){
+		while(step()) ;
+	}
+
+	private void beginRound(int game){
+		final int bagOffset = game * Rules.PIECES;
+		// inside-out Fisher-Yates, the bag is taken from the end
+		for(int i = 0; i < Rules.PIECES; i++){
+			final int j = random.nextInt(i + 1);
+			bag[bagOffset + i] = bag[bagOffset + j];
+			bag[bagOffset + j] = (byte) i;
+		}
+		bagSizes[game] = Rules.PIECES;
+		occupied[game] = 0;
+		turns[game] = 0;
+		for(int seat = 2 * game; seat < 2 * game + 2; seat++){
+			scores[seat] = 0;
+			skips[seat] = 0;
+			handSizes[seat] = 0;
+			handMasks[seat] = 0;
+			for(int i = 0; i < HAND; i++) draw(game, seat);
+		}
+	}
+
+	private int take(int game){
+		bagSizes[game]--;
+		return bag[game * Rules.PIECES + bagSizes[game]];
+	}
+
+	private void draw(int game, int seat){
+		final int piece = take(game);
+		hands[seat * HAND + handSizes[seat]] = (byte) piece;
+		handSizes[seat]++;
+		handMasks[seat] |= 1L << piece;
+	}
+
+	private void remove(int seat, int piece){
+		final int offset = seat * HAND;
+		int i = 0;
+		while(hands[offset + i] != piece) i++;
+		handSizes[seat]--;
+		for(; i < handSizes[seat]; i++) hands[offset + i] = hands[offset + i + 1];
+		handMasks[seat] &= ~(1L << piece);
+	}
+
+	private void swap(int game, int seat, int piece){
+		remove(seat, piece);
+		draw(game, seat);
+		// insert the piece at a uniformly random position: one inside-out Fisher-Yates step, which keeps the bag a uniform permutation like Bag.swap
+		final int offset = game * Rules.PIECES;
+		final int j = random.nextInt(bagSizes[game] + 1);
+		bag[offset + bagSizes[game]] = bag[offset + j];
+		bag[offset + j] = (byte) piece;
+		bagSizes[game]++;
+	}
+
+	private void executeTurn(int game){
+		final int seat = 2 * game + (turns[game] & 1);
+		final long board = occupied[game];
+		final int size = handSizes[seat];
+
+		// RandomStrategy: no legal move means no penalty, since Game.canPlay would also be false
+		if(size == 0){
+			skips[seat]++;
+		}else{
+			for(int i = 0; i < size; i++) order[i] = hands[seat * HAND + i];
+			for(int i = 0; i < size; i++){
+				final int j = random.nextInt(size);
+				final int tmp = order[i];
+				order[i] = order[j];
+				order[j] = tmp;
+			}
+			for(int i = 0; i < Rules.ROTATIONS; i++) rotations[i] = i;
+			for(int i = 0; i < Rules.ROTATIONS; i++){
+				final int j = random.nextInt(Rules.ROTATIONS);
+				final int tmp = rotations[i];
+				rotations[i] = rotations[j];
+				rotations[j] = tmp;
+			}
+
+			// a uniformly chosen playable cell, like the first playable cell of a shuffled list
+			long candidates = (board == 0 ? ALL_CELLS : Rules.adjacent(board)) & ~board;
+			int count = 0;
+			for(; candidates != 0; candidates &= candidates - 1){
+				final int cell = Long.numberOfTrailingZeros(candidates);
+				if(isPlayable(game, cell, handMasks[seat])) valid[count++] = cell;
+			}
+
+			if(count > 0){
+				final int cell = valid[random.nextInt(count)];
+				play(game, seat, cell);
+			}else if(bagSizes[game] > 0){
+				if(isStalemate(game)){
+					// no remaining piece fits anywhere, the players would swap forever
+					stalemates++;
+					turns[game]++;
+					totalTurns++;
+					endRound(game);
+					return;
+				}
+				swap(game, seat, order[0]);
+			}else{
+				skips[seat]++;
+			}
+		}
+		turns[game]++;
+		totalTurns++;
+		if(isRoundOver(game)) endRound(game);
+	}
+
+	private boolean isPlayable(int game, int cell, long hand){
+		final int cellOffset = game * Rules.CELLS;
+		for(; hand != 0; hand &= hand - 1){
+			final int piece = Long.numberOfTrailingZeros(hand);
+			for(int rotation = 0; rotation < Rules.ROTATIONS; rotation++){
+				if(Rules.canPlace(cells, cellOffset, occupied[game], piece, cell, rotation)) return true;
+			}
+		}
+		return false;
+	}
+
+	private void play(int game, int seat, int cell){
+		final int cellOffset = game * Rules.CELLS;
+		final long board = occupied[game];
+		for(int i = 0; i < handSizes[seat]; i++){
+			final int piece = order[i];
+			for(int rotation : rotations){
+				if(Rules.canPlace(cells, cellOffset, board, piece, cell, rotation)){
+					scores[seat] += Rules.score(board, piece, cell);
+					cells[cellOffset + cell] = (byte) Rules.code(piece, rotation);
+					occupied[game] = board | (1L << cell);
+					remove(seat, piece);
+					if(bagSizes[game] > 0) draw(game, seat);
+					return;
+				}
+			}
+		}
+		throw new IllegalStateException("The cell " + cell + " is not playable");
+	}
+
+	private boolean isStalemate(int game){
+		final int bagOffset = game * Rules.PIECES;
+		long pieces = handMasks[2 * game] | handMasks[2 * game + 1];
+		for(int i = 0; i < bagSizes[game]; i++) pieces |= 1L << bag[bagOffset + i];
+		final long board = occupied[game];
+		for(long frontier = Rules.adjacent(board) & ~board; frontier != 0; frontier &= frontier - 1){
+			if(isPlayable(game, Long.numberOfTrailingZeros(frontier), pieces)) return false;
+		}
+		return true;
+	}
+
+	private boolean isRoundOver(int game){
+		final int first = 2 * game, second = first + 1;
+		if(skips[first] >= skipLimit || skips[second] >= skipLimit) return true;
+		if(bagSizes[game] > 0) return false;
+		if(handSizes[first] == 0 || handSizes[second] == 0) return true;
+		final int cellOffset = game * Rules.CELLS;
+		return !Rules.canPlay(cells, cellOffset, occupied[game], handMasks[first]) && !Rules.canPlay(cells, cellOffset, occupied[game], handMasks[second]);
+	}
+
+	private void endRound(int game){
+		final int first = 2 * game, second = first + 1;
+		final int winner;
+		if(scores[first] > scores[second]) winner = 0;
+		else if(scores[second] > scores[first]) winner = 1;
+		else if(handSizes[first] > 0 || skips[second] >= skipLimit) winner = 0;
+		else winner = 1;
+
+		// the players swap their seats every round
+		final int player = 2 * game + (winner ^ (rounds[game] & 1));
+		wins[player]++;
+		if(wins[player] >= numWinningRounds){
+			finished[game] = true;
+			running--;
+		}else{
+			rounds[game]++;
+			beginRound(game);
+		}
+	}
+
+	/**
+	 * Get the number of games of the batch
+	 *
+	 * @return the number of games played simultaneously
+	 */
+	public int countGames(){
+		return games;
+	}
+
+	/**
+	 * Get the number of unfinished games
+	 *
+	 * @return the number of games still being played
+	 */
+	public int countRunning(){
+		return running;
+	}
+
+	/**
+	 * Get the number of turns played by all the games since the last {@link BatchSimulator#reset()}
+	 *
+	 * @return the number of turns
+	 */
+	public long countTurns(){
+		return totalTurns;
+	}
+
+	/**
+	 * Get the number of rounds stopped in a stalemate since the last {@link BatchSimulator#reset()}.
+	 * A stalemate happens when no piece left (in the hands or in the bag) fits on the board while the bag is not empty:
+	 * {@link RandomStrategy} then swaps forever, without penalty, and such a round never ends in {@link Game}.
+	 * The simulator ends the round as if the bag were empty.
+	 *
+	 * @return the number of rounds ended in a stalemate
+	 */
+	public int countStalemates(){
+		return stalemates;
+	}
+
+	/**
+	 * Know if a game is finished
+	 *
+	 * @param game the index of the game
+	 * @return true iff a player has won enough rounds
+	 */
+	public boolean isFinished(int game){
+		return finished[game];
+	}
+
+	/**
+	 * Get the winner of a finished game
+	 *
+	 * @param game the index of the game
+	 * @return 0 for the player that started the first round, 1 for the other one, -1 if the game is not finished
+	 */
+	public int getWinner(int game){
+		if(!finished[game]) return -1;
+		return wins[2 * game] >= numWinningRounds ? 0 : 1;
+	}
+
+	/**
+	 * Get the number of rounds won by a player
+	 *
+	 * @param game   the index of the game
+	 * @param player 0 for the player that started the first round, 1 for the other one
+	 * @return the number of rounds won
+	 */
+	public int countWin(int game, int player){
+		return wins[2 * game + player];
+	}
+
+	/**
+	 * Get the number of rounds played, including the current one
+	 *
+	 * @param game the index of the game
+	 * @return the number of rounds
+	 */
+	public int countRounds(int game){
+		return rounds[game] + 1;
+	}
+
+	/**
+	 * Get the score of a player in the current round (the last round if the game is finished)
+	 *
+	 * @param game   the index of the game
+	 * @param player 0 for the player that started the first round, 1 for the other one
+	 * @return the score
+	 */
+	public int getScore(int game, int player){
+		return scores[2 * game + (player ^ (rounds[game] & 1))];
+	}
+}
@@ -0,0 +1,586 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Piece;
+import be.belegkarnil.game.board.spectrangle.Player;
+
+import java.awt.Point;
+
+/**
+ * This class is a compact and mutable copy of a round (board, hands, scores, and skips) that can be reused without allocation.
+ * It is loaded from the objects given to {@link be.belegkarnil.game.board.spectrangle.strategy.Strategy#plays(Player, Board, Player)}
+ * and evaluated with {@link Rules}, so that strategies can score thousands of moves per millisecond.
+ * The side 0 is the player given as myself to {@link Position#load(Player, Board, Player)} and the side 1 is the opponent.
+ * Moves are encoded as int (see {@link Position#move(int, int, int)}, {@link Position#swap(int)}, and {@link Position#SKIP}).
+ * The bag holds every piece that is neither on the board nor in a hand, its order is unknown:
+ * the piece drawn is given to {@link Position#play(int, int)}, which applies the rules of {@link Game#executeTurn()} (penalties, skips)
+ * with the skip limit and penalty given to {@link Position#setRules(int, int)}.
+ *
+ * @author Belegkarnil
+ */
+public final class Position{
+	/**
+	 * is the move that skips the turn
+	 */
+	public static final int SKIP = 0x3FFF;
+	/**
+	 * is the value that represents the absence of move
+	 */
+	public static final int NO_MOVE = -1;
+	/**
+	 * is the maximum number of placements a hand can have (see {@link Position#generate(int[])})
+	 */
+	public static final int MAX_MOVES = Game.INITIAL_PIECES * Rules.CELLS * Rules.ROTATIONS;
+
+	private static final int SWAP_CELL = 0x3F;
+	private static final Action SKIP_ACTION = new Action();
+
+	private final byte[] cells;
+	private long occupied, placed;
+	private final long[] hands;
+	private final int[] scores;
+	private final int[] skips;
+	private int side, first;
+	private int skipLimit, skipPenalty;
+
+	/**
+	 * Construct an empty position (the board is empty and both hands are empty)
+	 */
+	public Position(){
+		this.cells = new byte[Rules.CELLS];
+		this.hands = new long[2];
+		this.scores = new int[2];
+		this.skips = new int[2];
+		this.occupied = 0;
+		this.placed = 0;
+		this.side = 0;
+		this.first = 0;
+		this.skipLimit = Game.DEFAULT_SKIP_LIMIT;
+		this.skipPenalty = Game.DEFAULT_SKIP_PENALTY;
+	}
+
+	/**
+	 * Construct a copy of a position
+	 *
+	 * @param position the position to copy
+	 */
+	public Position(Position position){
+		this();
+		copy(position);
+	}
+
+	/**
+	 * Replace the content of this position by another one
+	 *
+	 * @param position the position to copy
+	 */
+	public void copy(Position position){
+		System.arraycopy(position.cells, 0, cells, 0, Rules.CELLS);
+		occupied = position.occupied;
+		placed = position.placed;
+		hands[0] = position.hands[0];
+		hands[1] = position.hands[1];
+		scores[0] = position.scores[0];
+		scores[1] = position.scores[1];
+		skips[0] = position.skips[0];
+		skips[1] = position.skips[1];
+		side = position.side;
+		first = position.first;
+		skipLimit = position.skipLimit;
+		skipPenalty = position.skipPenalty;
+	}
+
+	/**
+	 * Set the rules of the round (see {@link Game#getSkipLimit()} and {@link Game#getSkipPenalty()})
+	 *
+	 * @param skipLimit   the number of skips that ends the round
+	 * @param skipPenalty the points removed when a player can play but does not
+	 */
+	public void setRules(int skipLimit, int skipPenalty){
+		this.skipLimit = skipLimit;
+		this.skipPenalty = skipPenalty;
+	}
+
+	/**
+	 * Get the number of skips that ends the round
+	 *
+	 * @return the skip limit
+	 */
+	public int getSkipLimit(){
+		return skipLimit;
+	}
+
+	/**
+	 * Load the current round of a game, the player that has to play is the side 0.
+	 * Unlike {@link Position#load(Player, Board, Player)}, the rules and the player that started the round are known.
+	 *
+	 * @param game     the game in progress
+	 * @param myself   the player that has to play
+	 * @param board    the current board
+	 * @param opponent the opponent
+	 */
+	public void load(Game game, Player myself, Board board, Player opponent){
+		load(myself, board, opponent);
+		setRules(game.getSkipLimit(), game.getSkipPenalty());
+		first = game.getFirstPlayer() == myself ? 0 : 1;
+	}
+
+	/**
+	 * Replace the content of this position by the current round, myself (side 0) has to play.
+	 * The rules are kept and myself is assumed to have started the round (see {@link Position#load(Game, Player, Board, Player)}).
+	 *
+	 * @param myself   the player that has to play
+	 * @param board    the current board
+	 * @param opponent the opponent
+	 */
+	public void load(Player myself, Board board, Player opponent){
+		if(board.getSize() != Rules.SIZE) throw new IllegalArgumentException("Only the board of size " + Rules.SIZE + " is supported");
+		occupied = 0;
+		placed = board.getPlacedPieces();
+		if(placed != 0){
+			for(int cell = 0; cell < Rules.CELLS; cell++){
+				final int x = Rules.x(cell), y = Rules.y(cell);
+				final Piece piece = board.getPiece(x, y);
+				if(piece != null){
+					cells[cell] = (byte) Rules.code(piece.ordinal(), board.getRotation(x, y));
+					occupied |= 1L << cell;
+				}
+			}
+		}
+		hands[0] = myself.getPieceMask();
+		hands[1] = opponent.getPieceMask();
+		scores[0] = myself.getScore();
+		scores[1] = opponent.getScore();
+		skips[0] = myself.countSkip();
+		skips[1] = opponent.countSkip();
+		side = 0;
+		first = 0;
+	}
+
+	/**
+	 * Replace the content of this position by a new round: the board is empty, the scores and the skips are reset and the side 0,
+	 * which started the round, has to play. The rules are kept.
+	 *
+	 * @param myself   the mask of the pieces of the side 0
+	 * @param opponent the mask of the pieces of the side 1
+	 */
+	public void deal(long myself, long opponent){
+		if((myself & opponent) != 0) throw new IllegalArgumentException("A piece cannot be in both hands");
+		if((myself | opponent) != (Rules.ALL_PIECES & (myself | opponent))) throw new IllegalArgumentException("Unknown piece");
+		occupied = 0;
+		placed = 0;
+		hands[0] = myself;
+		hands[1] = opponent;
+		scores[0] = 0;
+		scores[1] = 0;
+		skips[0] = 0;
+		skips[1] = 0;
+		side = 0;
+		first = 0;
+	}
+
+	/**
+	 * Get the side that has to play
+	 *
+	 * @return 0 or 1
+	 */
+	public int getSide(){
+		return side;
+	}
+
+	/**
+	 * Give the turn to a side, without playing (e.g. to think about the move of the opponent)
+	 *
+	 * @param side 0 or 1
+	 */
+	public void setSide(int side){
+		if(side != 0 && side != 1) throw new IllegalArgumentException("The side must be 0 or 1");
+		this.side = side;
+	}
+
+	/**
+	 * Get the mask of the occupied cells
+	 *
+	 * @return the mask indexed by cell
+	 */
+	public long getOccupied(){
+		return occupied;
+	}
+
+	/**
+	 * Get the hand of a side
+	 *
+	 * @param side 0 or 1
+	 * @return the mask of the pieces indexed by {@link Piece#ordinal()}
+	 */
+	public long getHand(int side){
+		return hands[side];
+	}
+
+	/**
+	 * Get the mask of the pieces in the bag (i.e. the pieces neither on the board nor in a hand)
+	 *
+	 * @return the mask indexed by {@link Piece#ordinal()}
+	 */
+	public long getBag(){
+		return Rules.ALL_PIECES & ~getPlaced() & ~hands[0] & ~hands[1];
+	}
+
+	/**
+	 * Get the mask of the pieces on the board
+	 *
+	 * @return the mask indexed by {@link Piece#ordinal()}
+	 */
+	public long getPlaced(){
+		return placed;
+	}
+
+	/**
+	 * Know if the bag is empty
+	 *
+	 * @return true iff every piece is either on the board or in a hand
+	 */
+	public boolean isBagEmpty(){
+		return getBag() == 0;
+	}
+
+	/**
+	 * Get the score of a side
+	 *
+	 * @param side 0 or 1
+	 * @return the score in the current round
+	 */
+	public int getScore(int side){
+		return scores[side];
+	}
+
+	/**
+	 * Get the number of skips of a side
+	 *
+	 * @param side 0 or 1
+	 * @return the number of skips in the current round
+	 */
+	public int countSkip(int side){
+		return skips[side];
+	}
+
+	/**
+	 * Get the side that started the round, it wins a tie (see {@link Position#getWinner()})
+	 *
+	 * @return 0 or 1
+	 */
+	public int getFirst(){
+		return first;
+	}
+
+	/**
+	 * Get the rotated piece on a cell
+	 *
+	 * @param cell the cell index
+	 * @return the cell code (see {@link Rules#code(int, int)}), or {@link Rules#NONE} if the cell is free
+	 */
+	public int getCode(int cell){
+		if((occupied & (1L << cell)) == 0) return Rules.NONE;
+		return cells[cell];
+	}
+
+	/**
+	 * Know if the board is empty
+	 *
+	 * @return true iff the next placement is the first move of the round
+	 */
+	public boolean isFirstMove(){
+		return occupied == 0;
+	}
+
+	/**
+	 * Know if a rotated piece can be put on a cell (see {@link Rules#canPlace(byte[], int, long, int, int, int)})
+	 *
+	 * @param piece    the piece ordinal
+	 * @param cell     the cell index
+	 * @param rotation the rotation
+	 * @return true iff the placement is valid
+	 */
+	public boolean canPlace(int piece, int cell, int rotation){
+		return Rules.canPlace(cells, 0, occupied, piece, cell, rotation);
+	}
+
+	/**
+	 * Get the score of a valid placement (see {@link Rules#score(long, int, int)})
+	 *
+	 * @param piece the piece ordinal
+	 * @param cell  the cell index
+	 * @return the points earned
+	 */
+	public int score(int piece, int cell){
+		return Rules.score(occupied, piece, cell);
+	}
+
+	/**
+	 * Get the mask of the cells that may receive a piece (the free cells adjacent to a piece, or the free cells without bonus at the first move)
+	 *
+	 * @return the mask indexed by cell
+	 */
+	public long getFrontier(){
+		if(occupied == 0) return ~Rules.bonus() & ((1L << Rules.CELLS) - 1);
+		return Rules.adjacent(occupied) & ~occupied;
+	}
+
+	/**
+	 * Know if a side would be penalized for not playing, exactly like {@link Game#canPlay(Board, Player)}
+	 *
+	 * @param side 0 or 1
+	 * @return true iff {@link Game} considers that the side can play
+	 */
+	public boolean canPlay(int side){
+		return Rules.canPlay(cells, 0, occupied, hands[side]);
+	}
+
+	/**
+	 * Know if no piece left (in a hand or in the bag) fits on the board.
+	 * Swapping cannot help anymore and the round only ends when the players skip.
+	 *
+	 * @return true iff no piece can ever be put on the board in this round
+	 */
+	public boolean isStalemate(){
+		final long pieces = Rules.ALL_PIECES & ~getPlaced();
+		for(long frontier = getFrontier(); frontier != 0; frontier &= frontier - 1){
+			final int cell = Long.numberOfTrailingZeros(frontier);
+			for(long bits = pieces; bits != 0; bits &= bits - 1){
+				final int piece = Long.numberOfTrailingZeros(bits);
+				for(int rotation = 0; rotation < Rules.ROTATIONS; rotation++){
+					if(canPlace(piece, cell, rotation)) return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Know if the side that has to play has at least one valid placement
+	 *
+	 * @return true iff a piece of the hand can be put somewhere
+	 */
+	public boolean hasPlacement(){
+		final long hand = hands[side];
+		for(long frontier = getFrontier(); frontier != 0; frontier &= frontier - 1){
+			final int cell = Long.numberOfTrailingZeros(frontier);
+			for(long bits = hand; bits != 0; bits &= bits - 1){
+				final int piece = Long.numberOfTrailingZeros(bits);
+				for(int rotation = 0; rotation < Rules.ROTATIONS; rotation++){
+					if(canPlace(piece, cell, rotation)) return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Apply the move of the side that has to play, exactly like {@link Game#executeTurn()}, then give the turn to the other side.
+	 * The move must be valid: a placement of {@link Position#generate(int[])}, a swap of a piece of the hand, or {@link Position#SKIP}.
+	 *
+	 * @param move  the move
+	 * @param drawn the piece ordinal taken from the bag (after a placement or a swap), {@link Rules#NONE} if the bag is empty
+	 */
+	public void play(int move, int drawn){
+		boolean penalty = false;
+		if(move == SKIP){
+			penalty = canPlay(side);
+			skips[side]++;
+		}else if(isSwap(move)){
+			if(drawn == Rules.NONE){
+				skips[side]++;
+				penalty = true;
+			}else{
+				if(canPlay(side)){
+					skips[side]++;
+					penalty = true;
+				}
+				hands[side] = (hands[side] & ~(1L << pieceOf(move))) | (1L << drawn);
+			}
+		}else{
+			final int piece = pieceOf(move), cell = cellOf(move);
+			scores[side] += Rules.score(occupied, piece, cell);
+			cells[cell] = (byte) Rules.code(piece, rotationOf(move));
+			occupied |= 1L << cell;
+			placed |= 1L << piece;
+			hands[side] &= ~(1L << piece);
+			if(drawn != Rules.NONE) hands[side] |= 1L << drawn;
+		}
+		if(penalty) scores[side] -= skipPenalty;
+		side ^= 1;
+	}
+
+	/**
+	 * Know if the round is over, exactly like the end of a turn in {@link Game}
+	 *
+	 * @return true iff a side reached the skip limit, or the bag is empty and nobody can play anymore
+	 */
+	public boolean isRoundOver(){
+		if(skips[0] >= skipLimit || skips[1] >= skipLimit) return true;
+		if(!isBagEmpty()) return false;
+		if(hands[0] == 0 || hands[1] == 0) return true;
+		return !canPlay(0) && !canPlay(1);
+	}
+
+	/**
+	 * Get the winner of a finished round, exactly like {@link Game}: the highest score, a tie is won by the side that started the round
+	 * if it still has pieces or if the other side reached the skip limit
+	 *
+	 * @return 0 or 1
+	 */
+	public int getWinner(){
+		if(scores[0] != scores[1]) return scores[0] > scores[1] ? 0 : 1;
+		final int second = first ^ 1;
+		return hands[first] != 0 || skips[second] >= skipLimit ? first : second;
+	}
+
+	/**
+	 * List every valid placement of the side that has to play
+	 *
+	 * @param moves the buffer that receives the moves, of length {@link Position#MAX_MOVES} at least
+	 * @return the number of moves written in the buffer
+	 */
+	public int generate(int[] moves){
+		int count = 0;
+		for(long frontier = getFrontier(); frontier != 0; frontier &= frontier - 1){
+			final int cell = Long.numberOfTrailingZeros(frontier);
+			for(long hand = hands[side]; hand != 0; hand &= hand - 1){
+				final int piece = Long.numberOfTrailingZeros(hand);
+				for(int rotation = 0; rotation < Rules.ROTATIONS; rotation++){
+					if(canPlace(piece, cell, rotation)) moves[count++] = move(piece, cell, rotation);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * List the moves worth considering for the side that has to play: every valid placement,
+	 * otherwise a swap of each piece of the hand if the bag is not empty and the position is not a stalemate, otherwise {@link Position#SKIP}.
+	 * Skipping or swapping while a placement is valid is never listed since it is penalized.
+	 *
+	 * @param moves the buffer that receives the moves, of length {@link Position#MAX_MOVES} at least
+	 * @return the number of moves written in the buffer (at least 1)
+	 */
+	public int generateAll(int[] moves){
+		final int count = generate(moves);
+		if(count > 0) return count;
+		final long hand = hands[side];
+		if(hand == 0 || isBagEmpty() || isStalemate()){
+			moves[0] = SKIP;
+			return 1;
+		}
+		int swaps = 0;
+		for(long bits = hand; bits != 0; bits &= bits - 1){
+			moves[swaps++] = swap(Long.numberOfTrailingZeros(bits));
+		}
+		return swaps;
+	}
+
+	/**
+	 * Encode a placement
+	 *
+	 * @param piece    the piece ordinal
+	 * @param cell     the cell index
+	 * @param rotation the rotation
+	 * @return the move (16 bits)
+	 */
+	public static int move(int piece, int cell, int rotation){
+		return (piece << 8) | (cell << 2) | rotation;
+	}
+
+	/**
+	 * Encode the replacement of a piece
+	 *
+	 * @param piece the piece ordinal to put back in the bag
+	 * @return the move (16 bits)
+	 */
+	public static int swap(int piece){
+		return move(piece, SWAP_CELL, 0);
+	}
+
+	/**
+	 * Get the piece of a move
+	 *
+	 * @param move the move
+	 * @return the piece ordinal
+	 */
+	public static int pieceOf(int move){
+		return move >>> 8;
+	}
+
+	/**
+	 * Get the cell of a placement
+	 *
+	 * @param move the move
+	 * @return the cell index
+	 */
+	public static int cellOf(int move){
+		return (move >>> 2) & 0x3F;
+	}
+
+	/**
+	 * Get the rotation of a placement
+	 *
+	 * @param move the move
+	 * @return the rotation
+	 */
+	public static int rotationOf(int move){
+		return move & 0x3;
+	}
+
+	/**
+	 * Know if a move is a replacement
+	 *
+	 * @param move the move
+	 * @return true iff the move puts a piece back in the bag
+	 */
+	public static boolean isSwap(int move){
+		return move != SKIP && cellOf(move) == SWAP_CELL;
+	}
+
+	/**
+	 * Know if a move is a placement
+	 *
+	 * @param move the move
+	 * @return true iff the move puts a piece on the board
+	 */
+	public static boolean isPlacement(int move){
+		return move >= 0 && cellOf(move) != SWAP_CELL;
+	}
+
+	/**
+	 * Convert a move to the {@link Action} expected by {@link Game}
+	 *
+	 * @param move the move
+	 * @return the action ({@link Position#NO_MOVE} and {@link Position#SKIP} are skip actions)
+	 */
+	public static Action toAction(int move){
+		if(move == NO_MOVE || move == SKIP) return SKIP_ACTION;
+		if(isSwap(move)) return new Action(Rules.piece(pieceOf(move)));
+		final int cell = cellOf(move);
+		return new Action(Rules.piece(pieceOf(move)), new Point(Rules.x(cell), Rules.y(cell)), rotationOf(move));
+	}
+}
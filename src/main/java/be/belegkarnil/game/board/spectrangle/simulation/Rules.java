@@ -0,0 +1,374 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Constants;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Piece;
+
+import java.awt.Color;
+import java.awt.Point;
+
+/**
+ * This class is a compact, table-driven version of the {@link Board} rules for the reference board size ({@link Board#DEFAULT_SIZE}).
+ * Cells are numbered row by row (see {@link Rules#cellOf(int, int)}), pieces by their ordinal, and a board is stored as a byte per cell
+ * (the piece code {@code piece * 3 + rotation}, see {@link Rules#code(int, int)}) together with a bitmask of the occupied cells.
+ * Sets of pieces (hands, bag, placed pieces) are bitmasks indexed by {@link Piece#ordinal()}.
+ * All methods are static, allocation-free, and accept an offset so that many boards can share a single array.
+ *
+ * @author Belegkarnil
+ */
+public final class Rules{
+	/**
+	 * is the reference size of the board
+	 */
+	public static final int SIZE = Board.DEFAULT_SIZE;
+	/**
+	 * is the number of cells of the board
+	 */
+	public static final int CELLS = SIZE * SIZE;
+	/**
+	 * is the number of distinct pieces
+	 */
+	public static final int PIECES = Piece.values().length;
+	/**
+	 * is the number of rotations of a piece
+	 */
+	public static final int ROTATIONS = 3;
+	/**
+	 * is the mask of all the pieces
+	 */
+	public static final long ALL_PIECES = (1L << PIECES) - 1;
+	/**
+	 * is the value that represents no cell (out of the board) or no piece
+	 */
+	public static final int NONE = -1;
+	/**
+	 * is the ordinal of the white piece ({@link Piece#WHITE}) which matches every color
+	 */
+	public static final int WHITE = Piece.WHITE.ordinal();
+
+	private static final Piece[] PIECE = Piece.values();
+	private static final int WHITE_COLOR = 5;
+
+	private static final int[] X = new int[CELLS];
+	private static final int[] Y = new int[CELLS];
+	private static final int[][] INDEX = new int[2 * SIZE - 1][];
+	private static final int[] LEFT = new int[CELLS];
+	private static final int[] RIGHT = new int[CELLS];
+	private static final int[] BASE = new int[CELLS];
+	private static final long[] NEIGHBOURS = new long[CELLS];
+	private static final int[] FACTOR = new int[CELLS];
+	private static final long BONUS;
+	private static final long SCANNED;
+	private static final int[] VALUE = new int[PIECES];
+	private static final byte[] COLORS = new byte[PIECES * ROTATIONS * 3];
+
+	static{
+		final Board board = new Board();
+		int cell = 0;
+		long bonus = 0;
+		for(int y = 0; y < board.countRows(); y++){
+			INDEX[y] = new int[board.countColumns(y)];
+			for(int x = 0; x < board.countColumns(y); x++){
+				INDEX[y][x] = cell;
+				X[cell] = x;
+				Y[cell] = y;
+				FACTOR[cell] = board.getFactor(x, y);
+				if(board.isBonus(x, y)) bonus |= 1L << cell;
+				cell++;
+			}
+		}
+		BONUS = bonus;
+		for(cell = 0; cell < CELLS; cell++){
+			final Point position = new Point(X[cell], Y[cell]);
+			LEFT[cell] = cellOf(board.getLeftNeighbour(position));
+			RIGHT[cell] = cellOf(board.getRightNeighbour(position));
+			BASE[cell] = cellOf(board.getBaseNeighbour(position));
+			for(Point neighbour : board.getNeighbours(position)){
+				NEIGHBOURS[cell] |= 1L << cellOf(neighbour);
+			}
+		}
+
+		// the cells inspected by Game.canPlay, which only walks the rows of the upper half of the board
+		long scanned = 0;
+		int rowCounter = 0;
+		int y;
+		for(y = 0; y < SIZE; y++){
+			rowCounter++;
+			for(int x = 0; x < rowCounter; x++) scanned |= 1L << INDEX[y][x];
+		}
+		for(y = 0; y < 2 * SIZE - 1; y++){
+			rowCounter--;
+			for(int x = 0; x < rowCounter && x < INDEX[y].length; x++) scanned |= 1L << INDEX[y][x];
+		}
+		SCANNED = scanned;
+
+		for(Piece piece : PIECE){
+			VALUE[piece.ordinal()] = piece.value;
+			for(int rotation = 0; rotation < ROTATIONS; rotation++){
+				final Color[] colors = board.applyRotate(piece, rotation);
+				final int index = code(piece.ordinal(), rotation) * 3;
+				COLORS[index + Board.BASE_COLOR] = colorCode(colors[Board.BASE_COLOR]);
+				COLORS[index + Board.LEFT_COLOR] = colorCode(colors[Board.LEFT_COLOR]);
+				COLORS[index + Board.RIGHT_COLOR] = colorCode(colors[Board.RIGHT_COLOR]);
+			}
+		}
+	}
+
+	private Rules(){
+	}
+
+	private static byte colorCode(Color color){
+		if(color == Constants.PURPLE_COLOR) return 0;
+		if(color == Constants.GREEN_COLOR) return 1;
+		if(color == Constants.BLUE_COLOR) return 2;
+		if(color == Constants.YELLOW_COLOR) return 3;
+		if(color == Constants.RED_COLOR) return 4;
+		if(color == Constants.WHITE_COLOR) return WHITE_COLOR;
+		throw new IllegalArgumentException("Unknown color " + color);
+	}
+
+	private static int cellOf(Point position){
+		if(position.y < 0 || position.y >= INDEX.length) return NONE;
+		if(position.x < 0 || position.x >= INDEX[position.y].length) return NONE;
+		return INDEX[position.y][position.x];
+	}
+
+	/**
+	 * Get the cell index of a board position
+	 *
+	 * @param x the x-axis (column) position
+	 * @param y the y-axis (row) position
+	 * @return the cell index or {@link Rules#NONE} if the position is out of the board
+	 */
+	public static int cellOf(int x, int y){
+		if(y < 0 || y >= INDEX.length || x < 0 || x >= INDEX[y].length) return NONE;
+		return INDEX[y][x];
+	}
+
+	/**
+	 * Get the x-axis (column) position of a cell
+	 *
+	 * @param cell the cell index
+	 * @return the column
+	 */
+	public static int x(int cell){
+		return X[cell];
+	}
+
+	/**
+	 * Get the y-axis (row) position of a cell
+	 *
+	 * @param cell the cell index
+	 * @return the row
+	 */
+	public static int y(int cell){
+		return Y[cell];
+	}
+
+	/**
+	 * Get the factor/multiplier of a cell (see {@link Board#getFactor(int, int)})
+	 *
+	 * @param cell the cell index
+	 * @return the factor
+	 */
+	public static int factor(int cell){
+		return FACTOR[cell];
+	}
+
+	/**
+	 * Get the mask of the cells adjacent to a cell
+	 *
+	 * @param cell the cell index
+	 * @return the mask of the neighbour cells
+	 */
+	public static long neighbours(int cell){
+		return NEIGHBOURS[cell];
+	}
+
+	/**
+	 * Get the cell that shares a side of a cell
+	 *
+	 * @param cell the cell index
+	 * @param side {@link Board#BASE_COLOR}, {@link Board#LEFT_COLOR}, or {@link Board#RIGHT_COLOR}
+	 * @return the neighbour cell or {@link Rules#NONE} if the side is on the border of the board
+	 */
+	public static int neighbour(int cell, int side){
+		if(side == Board.LEFT_COLOR) return LEFT[cell];
+		if(side == Board.RIGHT_COLOR) return RIGHT[cell];
+		return BASE[cell];
+	}
+
+	/**
+	 * Get the mask of the bonus cells (the cells forbidden for the first move)
+	 *
+	 * @return the mask of the bonus cells
+	 */
+	public static long bonus(){
+		return BONUS;
+	}
+
+	/**
+	 * Get the value of a piece
+	 *
+	 * @param piece the piece ordinal
+	 * @return the value used for scoring
+	 */
+	public static int value(int piece){
+		return VALUE[piece];
+	}
+
+	/**
+	 * Get the {@link Piece} of an ordinal
+	 *
+	 * @param piece the piece ordinal
+	 * @return the piece
+	 */
+	public static Piece piece(int piece){
+		return PIECE[piece];
+	}
+
+	/**
+	 * Get the code stored in a cell for a rotated piece
+	 *
+	 * @param piece    the piece ordinal
+	 * @param rotation the rotation (0, 1, or 2)
+	 * @return the cell code
+	 */
+	public static int code(int piece, int rotation){
+		return piece * ROTATIONS + rotation;
+	}
+
+	/**
+	 * Get the color code (0 to 5, 5 is white) of a side of a rotated piece
+	 *
+	 * @param code the cell code (see {@link Rules#code(int, int)})
+	 * @param side {@link Board#BASE_COLOR}, {@link Board#LEFT_COLOR}, or {@link Board#RIGHT_COLOR}
+	 * @return the color code
+	 */
+	public static int color(int code, int side){
+		return COLORS[code * 3 + side];
+	}
+
+	/**
+	 * Know if a rotated piece can be put on a cell, exactly like {@link Board#canPlace(Piece, Point, int)}
+	 *
+	 * @param cells    the cell codes
+	 * @param offset   the index of the first cell of the board in cells
+	 * @param occupied the mask of the occupied cells
+	 * @param piece    the piece ordinal
+	 * @param cell     the cell index
+	 * @param rotation the rotation (0, 1, or 2)
+	 * @return true iff the move is valid
+	 */
+	public static boolean canPlace(byte[] cells, int offset, long occupied, int piece, int cell, int rotation){
+		if((occupied & (1L << cell)) != 0) return false;
+		if(occupied == 0) return (BONUS & (1L << cell)) == 0; // first move
+		if((occupied & NEIGHBOURS[cell]) == 0) return false;
+		if(piece == WHITE) return true;
+
+		final int current = code(piece, rotation) * 3;
+		int neighbour = LEFT[cell];
+		if(neighbour != NONE && (occupied & (1L << neighbour)) != 0){
+			final int other = cells[offset + neighbour] * 3;
+			if(COLORS[other + Board.RIGHT_COLOR] != COLORS[current + Board.LEFT_COLOR] && COLORS[other + Board.RIGHT_COLOR] != WHITE_COLOR)
+				return false;
+		}
+		neighbour = RIGHT[cell];
+		if(neighbour != NONE && (occupied & (1L << neighbour)) != 0){
+			final int other = cells[offset + neighbour] * 3;
+			if(COLORS[other + Board.LEFT_COLOR] != COLORS[current + Board.RIGHT_COLOR] && COLORS[other + Board.RIGHT_COLOR] != WHITE_COLOR)
+				return false;
+		}
+		neighbour = BASE[cell];
+		if(neighbour != NONE && (occupied & (1L << neighbour)) != 0){
+			final int other = cells[offset + neighbour] * 3;
+			if(COLORS[other + Board.BASE_COLOR] != COLORS[current + Board.BASE_COLOR] && COLORS[other + Board.BASE_COLOR] != WHITE_COLOR)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Compute the score of a valid move, exactly like the value returned by placing the piece on a {@link Board}
+	 *
+	 * @param occupied the mask of the occupied cells
+	 * @param piece    the piece ordinal
+	 * @param cell     the cell index
+	 * @return factor * max(1, number of adjacent pieces) * piece value
+	 */
+	public static int score(long occupied, int piece, int cell){
+		final int corners = occupied == 0 ? 1 : Long.bitCount(occupied & NEIGHBOURS[cell]);
+		return corners * VALUE[piece] * FACTOR[cell];
+	}
+
+	/**
+	 * Know if a hand has at least one valid move, exactly like {@link Game#canPlay(Board, be.belegkarnil.game.board.spectrangle.Player)}
+	 *
+	 * @param cells    the cell codes
+	 * @param offset   the index of the first cell of the board in cells
+	 * @param occupied the mask of the occupied cells
+	 * @param hand     the mask of the pieces of the player
+	 * @return true iff the player can put at least one piece
+	 */
+	public static boolean canPlay(byte[] cells, int offset, long occupied, long hand){
+		if(hand == 0) return false;
+		long free = SCANNED & ~occupied;
+		if(occupied != 0) free &= adjacent(occupied);
+		for(; free != 0; free &= free - 1){
+			final int cell = Long.numberOfTrailingZeros(free);
+			for(long pieces = hand; pieces != 0; pieces &= pieces - 1){
+				final int piece = Long.numberOfTrailingZeros(pieces);
+				for(int rotation = 0; rotation < ROTATIONS; rotation++){
+					if(canPlace(cells, offset, occupied, piece, cell, rotation)) return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get a set bit of a mask
+	 *
+	 * @param mask  the mask
+	 * @param index the rank of the bit, from 0 to {@link Long#bitCount(long)} - 1
+	 * @return the position of the index-th set bit, from the lowest bit
+	 */
+	public static int select(long mask, int index){
+		for(; index > 0; index--) mask &= mask - 1;
+		return Long.numberOfTrailingZeros(mask);
+	}
+
+	/**
+	 * Get the mask of the cells adjacent to at least one occupied cell
+	 *
+	 * @param occupied the mask of the occupied cells
+	 * @return the mask of the cells that have an occupied neighbour
+	 */
+	public static long adjacent(long occupied){
+		long adjacent = 0;
+		for(long bits = occupied; bits != 0; bits &= bits - 1){
+			adjacent |= NEIGHBOURS[Long.numberOfTrailingZeros(bits)];
+		}
+		return adjacent;
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.io.File;
+import java.lang.reflect.Modifier;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * This class loader gives its own copy of the strategy classes (and of the classes they use) to a game or a worker, so that the static
+ * state of a strategy (caches, random generators, singletons) is not shared with the games played concurrently in the same JVM.
+ * It looks for a class in its own URLs first (child first), except the API of the engine that is shared with the parent: the classes
+ * of the main package (Game, Board, Player, Action, ...), the events, the GUI and the {@link Strategy} interface itself.
+ *
+ * @author Belegkarnil
+ */
+public class StrategyClassLoader extends URLClassLoader{
+	private static final String ENGINE = "be.belegkarnil.game.board.spectrangle.";
+	private static final String[] SHARED_PACKAGES = {ENGINE + "event.", ENGINE + "gui."};
+
+	static{
+		registerAsParallelCapable();
+	}
+
+	/**
+	 * Construct a class loader over the classpath of the application, which isolates the strategies shipped with the engine
+	 */
+	public StrategyClassLoader(){
+		this(classpath(), StrategyClassLoader.class.getClassLoader());
+	}
+
+	/**
+	 * Construct a class loader over the jars or directories of strategies
+	 *
+	 * @param urls   the jars or directories of the strategies (and of their dependencies)
+	 * @param parent the class loader of the engine
+	 */
+	public StrategyClassLoader(URL[] urls, ClassLoader parent){
+		super(urls, parent);
+	}
+
+	/**
+	 * Get the entries of the classpath of the application
+	 *
+	 * @return the URLs of the classpath
+	 */
+	public static URL[] classpath(){
+		final String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+		final URL[] urls = new URL[entries.length];
+		for(int i = 0; i < entries.length; i++){
+			try{
+				urls[i] = new File(entries[i]).toURI().toURL();
+			}catch(MalformedURLException e){
+				throw new IllegalArgumentException("Invalid classpath entry " + entries[i], e);
+			}
+		}
+		return urls;
+	}
+
+	/**
+	 * Know if a class is shared with the parent (the API of the engine) rather than loaded by this class loader
+	 *
+	 * @param name the binary name of the class
+	 * @return true iff the class is always loaded by the parent
+	 */
+	protected boolean isShared(String name){
+		if(name.startsWith("java.") || name.equals(Strategy.class.getName())) return true;
+		if(!name.startsWith(ENGINE)) return false;
+		if(name.indexOf('.', ENGINE.length()) < 0) return true; // main package
+		for(String shared : SHARED_PACKAGES){
+			if(name.startsWith(shared)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException{
+		synchronized(getClassLoadingLock(name)){
+			Class<?> klass = findLoadedClass(name);
+			if(klass == null && !isShared(name)){
+				try{
+					klass = findClass(name);
+				}catch(ClassNotFoundException e){
+					// delegate to the parent
+				}
+			}
+			if(klass == null) return super.loadClass(name, resolve);
+			if(resolve) resolveClass(klass);
+			return klass;
+		}
+	}
+
+	/**
+	 * Load a strategy class with this class loader and instantiate it
+	 *
+	 * @param className the class name of the strategy
+	 * @return a new instance of the strategy
+	 * @throws ReflectiveOperationException if the class cannot be found or instantiated
+	 * @throws IllegalArgumentException     if the class is not a concrete strategy
+	 */
+	public Strategy newStrategy(String className) throws ReflectiveOperationException{
+		final Class<?> klass = loadClass(className);
+		if(!Strategy.class.isAssignableFrom(klass) || Modifier.isAbstract(klass.getModifiers()))
+			throw new IllegalArgumentException(className + " is not a concrete strategy");
+		return klass.asSubclass(Strategy.class).getConstructor().newInstance();
+	}
+}
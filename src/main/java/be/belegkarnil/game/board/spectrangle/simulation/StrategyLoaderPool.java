@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This class keeps a bounded number of {@link StrategyClassLoader}s, one per worker thread of a tournament: a game leases a class loader
+ * for its duration, so the strategy classes are loaded (and compiled by the JIT) once per class loader, not once per game.
+ * The static state of a strategy is shared by the successive games of a class loader, never by concurrent games.
+ *
+ * @author Belegkarnil
+ */
+public class StrategyLoaderPool implements AutoCloseable{
+	private final URL[] urls;
+	private final ClassLoader parent;
+	private final int size;
+	private final LinkedBlockingQueue<StrategyClassLoader> idle;
+	private final List<StrategyClassLoader> loaders;
+
+	/**
+	 * Construct a pool of class loaders over the classpath of the application
+	 *
+	 * @param size the maximal number of class loaders (the number of concurrent games)
+	 */
+	public StrategyLoaderPool(int size){
+		this(StrategyClassLoader.classpath(), StrategyLoaderPool.class.getClassLoader(), size);
+	}
+
+	/**
+	 * Construct a pool of class loaders over the jars or directories of strategies
+	 *
+	 * @param urls   the jars or directories of the strategies
+	 * @param parent the class loader of the engine
+	 * @param size   the maximal number of class loaders (the number of concurrent games)
+	 */
+	public StrategyLoaderPool(URL[] urls, ClassLoader parent, int size){
+		if(size < 1) throw new IllegalArgumentException("The size of the pool must be strictly positive");
+		this.urls = urls.clone();
+		this.parent = parent;
+		this.size = size;
+		this.idle = new LinkedBlockingQueue<StrategyClassLoader>();
+		this.loaders = new ArrayList<StrategyClassLoader>(size);
+	}
+
+	/**
+	 * Get the maximal number of class loaders
+	 *
+	 * @return the size of the pool
+	 */
+	public int getSize(){
+		return size;
+	}
+
+	/**
+	 * Lease a class loader, create it if the pool is not full, otherwise wait until a class loader is released
+	 *
+	 * @return the class loader, that no other game uses until it is released
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public StrategyClassLoader acquire() throws InterruptedException{
+		final StrategyClassLoader loader = idle.poll();
+		if(loader != null) return loader;
+		synchronized(loaders){
+			if(loaders.size() < size){
+				final StrategyClassLoader created = new StrategyClassLoader(urls, parent);
+				loaders.add(created);
+				return created;
+			}
+		}
+		return idle.take();
+	}
+
+	/**
+	 * Give back a class loader leased with {@link StrategyLoaderPool#acquire()}
+	 *
+	 * @param loader the class loader
+	 */
+	public void release(StrategyClassLoader loader){
+		idle.add(loader);
+	}
+
+	/**
+	 * Close all class loaders, the strategies loaded by them cannot load classes anymore
+	 */
+	@Override
+	public void close(){
+		synchronized(loaders){
+			for(StrategyClassLoader loader : loaders){
+				try{
+					loader.close();
+				}catch(IOException e){
+					e.printStackTrace();
+				}
+			}
+			loaders.clear();
+		}
+		idle.clear();
+	}
+}
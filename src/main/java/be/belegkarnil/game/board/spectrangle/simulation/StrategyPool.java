@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the strategy instances between the games of a tournament, so that an instance warmed up once (see
+ * {@link Warmup}) keeps its compiled code, its caches and its tables for the following games.
+ * The instances are kept per class loader: an instance is only reused by a game that leases the class loader of its class.
+ * A strategy must reset its state of a game in {@link Strategy#register(Game)} to be reused.
+ *
+ * @author Belegkarnil
+ */
+public class StrategyPool{
+	// null is the key of the class loader of the application
+	private final Map<ClassLoader, Map<String, ArrayDeque<Strategy>>> idle;
+
+	/**
+	 * Construct an empty pool
+	 */
+	public StrategyPool(){
+		this.idle = new IdentityHashMap<ClassLoader, Map<String, ArrayDeque<Strategy>>>();
+	}
+
+	/**
+	 * Lease an idle instance of a strategy, or instantiate it if there is none
+	 *
+	 * @param loader    the class loader leased by the game, or null to load the strategy with the class loader of the application
+	 * @param className the class name of the strategy, it requires a public constructor without parameters
+	 * @return the instance, that no other game uses until it is released
+	 * @throws ReflectiveOperationException if the class cannot be found or instantiated
+	 */
+	public Strategy acquire(StrategyClassLoader loader, String className) throws ReflectiveOperationException{
+		synchronized(idle){
+			final Map<String, ArrayDeque<Strategy>> classes = idle.get(loader);
+			final ArrayDeque<Strategy> instances = classes == null ? null : classes.get(className);
+			if(instances != null && !instances.isEmpty()) return instances.pop();
+		}
+		return newStrategy(loader, className);
+	}
+
+	/**
+	 * Give back an instance leased with {@link StrategyPool#acquire(StrategyClassLoader, String)}, once its game is over
+	 *
+	 * @param strategy the instance
+	 */
+	public void release(Strategy strategy){
+		final ClassLoader classLoader = strategy.getClass().getClassLoader();
+		final ClassLoader loader = classLoader instanceof StrategyClassLoader ? classLoader : null;
+		synchronized(idle){
+			Map<String, ArrayDeque<Strategy>> classes = idle.get(loader);
+			if(classes == null){
+				classes = new HashMap<String, ArrayDeque<Strategy>>();
+				idle.put(loader, classes);
+			}
+			ArrayDeque<Strategy> instances = classes.get(strategy.getClass().getName());
+			if(instances == null){
+				instances = new ArrayDeque<Strategy>();
+				classes.put(strategy.getClass().getName(), instances);
+			}
+			instances.push(strategy);
+		}
+	}
+
+	/**
+	 * Count the idle instances
+	 *
+	 * @return the number of instances waiting for a game
+	 */
+	public int countIdle(){
+		int count = 0;
+		synchronized(idle){
+			for(Map<String, ArrayDeque<Strategy>> classes : idle.values()){
+				for(ArrayDeque<Strategy> instances : classes.values()) count += instances.size();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Forget all idle instances
+	 */
+	public void clear(){
+		synchronized(idle){
+			idle.clear();
+		}
+	}
+
+	static Strategy newStrategy(StrategyClassLoader loader, String className) throws ReflectiveOperationException{
+		if(loader != null) return loader.newStrategy(className);
+		return Class.forName(className).asSubclass(Strategy.class).getConstructor().newInstance();
+	}
+}
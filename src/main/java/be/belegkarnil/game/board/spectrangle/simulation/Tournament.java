@@ -0,0 +1,401 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.Watchdog;
+import be.belegkarnil.game.board.spectrangle.strategy.BatchStrategy;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class plays a round robin tournament between strategies: every pair of strategies plays a number of {@link Game}s, each
+ * strategy starting half of them. The games run concurrently on a fixed number of threads.
+ * With a {@link StrategyLoaderPool}, each game instantiates its strategies in a class loader leased for its duration, so that the
+ * static state of a strategy is never shared by concurrent games; without, all games share the classes of the application, which is
+ * only safe for strategies without static state.
+ * The CPU time and the memory consumed by each strategy are totaled, to find the strategies that slow down the concurrent games.
+ * With the warm-up, the strategies play throwaway positions before their first timed turn and their instances are reused by the
+ * following games (see {@link StrategyPool}), so that the first games are not lost to the JIT compilation.
+ * With the batching, a single instance of each {@link BatchStrategy} plays all the games, through a {@link BatchCoordinator} that groups
+ * the pending turns of the concurrent games (it is loaded by the class loader of the application, without isolation).
+ *
+ * @author Belegkarnil
+ */
+public class Tournament{
+	private final String[] strategies;
+	private final int games, threads;
+	private final StrategyLoaderPool loaders;
+	private final int timeout, numWinningRounds, skipLimit, skipPenalty;
+	private final int[][] wins, played;
+	private final long[] cpuTimes, allocations;
+	private int failures;
+	private volatile boolean cpuTimeAccounting;
+	private volatile long allocationLimit;
+	private volatile Warmup warmup;
+	private volatile boolean batching;
+	private final StrategyPool pool;
+	private volatile BatchCoordinator[] coordinators;
+
+	/**
+	 * Construct a tournament with the default settings of {@link Game}, each concurrent game in its own class loader
+	 *
+	 * @param strategies the class names of the strategies, they require a public constructor without parameters
+	 * @param games      the number of games played by each pair of strategies
+	 * @param threads    the number of games played concurrently
+	 */
+	public Tournament(String[] strategies, int games, int threads){
+		this(strategies, games, threads, new StrategyLoaderPool(threads), Game.DEFAULT_TIMEOUT, Game.DEFAULT_NUMBER_OF_WINNING_ROUNDS,
+			  Game.DEFAULT_SKIP_LIMIT, Game.DEFAULT_SKIP_PENALTY);
+	}
+
+	/**
+	 * Construct a tournament
+	 *
+	 * @param strategies       the class names of the strategies, they require a public constructor without parameters
+	 * @param games            the number of games played by each pair of strategies
+	 * @param threads          the number of games played concurrently
+	 * @param loaders          the class loaders of the games (at least as many as threads to play them all concurrently), or null to load the strategies with the class loader of the application
+	 * @param timeout          see {@link Game#Game(Board, Player, Player, int, int, int, int)}
+	 * @param numWinningRounds see {@link Game#Game(Board, Player, Player, int, int, int, int)}
+	 * @param skipLimit        see {@link Game#Game(Board, Player, Player, int, int, int, int)}
+	 * @param skipPenalty      see {@link Game#Game(Board, Player, Player, int, int, int, int)}
+	 */
+	public Tournament(String[] strategies, int games, int threads, StrategyLoaderPool loaders, int timeout, int numWinningRounds, int skipLimit, int skipPenalty){
+		if(strategies.length < 2) throw new IllegalArgumentException("A tournament requires at least two strategies");
+		if(games < 1) throw new IllegalArgumentException("The number of games must be strictly positive");
+		if(threads < 1) throw new IllegalArgumentException("The number of threads must be strictly positive");
+		this.strategies = strategies.clone();
+		this.games = games;
+		this.threads = threads;
+		this.loaders = loaders;
+		this.timeout = timeout;
+		this.numWinningRounds = numWinningRounds;
+		this.skipLimit = skipLimit;
+		this.skipPenalty = skipPenalty;
+		this.wins = new int[strategies.length][strategies.length];
+		this.played = new int[strategies.length][strategies.length];
+		this.cpuTimes = new long[strategies.length];
+		this.allocations = new long[strategies.length];
+		this.pool = new StrategyPool();
+		this.coordinators = new BatchCoordinator[strategies.length];
+	}
+
+	/**
+	 * Choose how the games enforce the timeout of a turn (see {@link Game#setCpuTimeAccounting(boolean)}), the CPU time keeps the
+	 * games fair when many of them run concurrently
+	 *
+	 * @param cpuTimeAccounting true to account the CPU time, false for the wall-clock time
+	 */
+	public void setCpuTimeAccounting(boolean cpuTimeAccounting){
+		this.cpuTimeAccounting = cpuTimeAccounting;
+	}
+
+	/**
+	 * Set the quota of memory that a strategy may allocate during a turn (see {@link Game#setAllocationLimit(long)})
+	 *
+	 * @param allocationLimit the number of bytes allowed per turn, or {@link Game#NO_ALLOCATION_LIMIT}
+	 */
+	public void setAllocationLimit(long allocationLimit){
+		if(allocationLimit < 0) throw new IllegalArgumentException("The allocation limit cannot be negative");
+		this.allocationLimit = allocationLimit;
+	}
+
+	/**
+	 * Set the warm-up of the strategies before their first game (see {@link Warmup}). With a warm-up, the strategy instances are reused
+	 * across games, so that each instance is warmed up once.
+	 *
+	 * @param positions the number of throwaway positions per strategy instance, or 0 to disable the warm-up and the reuse (default)
+	 */
+	public void setWarmup(int positions){
+		if(positions < 0) throw new IllegalArgumentException("The number of warm-up positions cannot be negative");
+		this.warmup = positions == 0 ? null : new Warmup(positions);
+		if(positions == 0) pool.clear();
+	}
+
+	/**
+	 * Choose whether the turns of the concurrent games are grouped for the strategies that implement {@link BatchStrategy}.
+	 * A batch holds at most one position per concurrent game (see {@link BatchCoordinator}).
+	 *
+	 * @param batching true to share a single instance of each batch strategy between all the games, false to instantiate it per game (default)
+	 */
+	public void setBatching(boolean batching){
+		this.batching = batching;
+	}
+
+	/**
+	 * Play all the games of the tournament, the results of a previous run are accumulated
+	 *
+	 * @throws InterruptedException if the thread is interrupted, the running games are interrupted too
+	 */
+	public void run() throws InterruptedException{
+		final BatchCoordinator[] coordinators = new BatchCoordinator[strategies.length];
+		if(batching){
+			for(int i = 0; i < strategies.length; i++) coordinators[i] = newCoordinator(strategies[i]);
+		}
+		this.coordinators = coordinators;
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory(){
+			private int counter = 0;
+
+			@Override
+			public synchronized Thread newThread(Runnable runnable){
+				final Thread thread = new Thread(runnable, "Tournament-" + (counter++));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		final List<Future<?>> futures = new ArrayList<Future<?>>();
+		try{
+			for(int game = 0; game < games; game++){
+				for(int i = 0; i < strategies.length; i++){
+					for(int j = i + 1; j < strategies.length; j++){
+						final int first = (game & 1) == 0 ? i : j, second = first == i ? j : i;
+						futures.add(executor.submit(new Runnable(){
+							@Override
+							public void run(){
+								play(first, second);
+							}
+						}));
+					}
+				}
+			}
+			for(Future<?> future : futures){
+				try{
+					future.get();
+				}catch(ExecutionException e){
+					e.getCause().printStackTrace();
+					synchronized(this){
+						failures++;
+					}
+				}
+			}
+		}finally{
+			executor.shutdownNow();
+			for(int i = 0; i < coordinators.length; i++){
+				final BatchCoordinator coordinator = coordinators[i];
+				if(coordinator == null) continue;
+				coordinator.close();
+				synchronized(this){ // the batches are evaluated outside of the turns
+					cpuTimes[i] += coordinator.getCpuTime();
+					allocations[i] += coordinator.getAllocatedBytes();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create the coordinator of a batch strategy
+	 *
+	 * @return the coordinator, or null if the strategy does not implement {@link BatchStrategy} or is not on the classpath of the application
+	 */
+	private BatchCoordinator newCoordinator(String className){
+		try{
+			final Class<?> klass = Class.forName(className);
+			if(!BatchStrategy.class.isAssignableFrom(klass)) return null;
+			return new BatchCoordinator((BatchStrategy) StrategyPool.newStrategy(null, className), threads, BatchCoordinator.DEFAULT_LINGER);
+		}catch(ClassNotFoundException e){
+			return null; // only loadable by the class loaders of the games
+		}catch(ReflectiveOperationException e){
+			throw new IllegalArgumentException("Cannot instantiate the strategy " + className, e);
+		}
+	}
+
+	/**
+	 * Play a single game, the strategies are instantiated in a leased class loader if the tournament has a pool.
+	 * With the warm-up, the instances are leased from the {@link StrategyPool} and given back after the game, unless they ignored the
+	 * cancellation of a turn (see {@link Watchdog}). With the batching, the batch strategies are played by their {@link BatchCoordinator}.
+	 *
+	 * @param first  the index of the strategy that starts the game
+	 * @param second the index of the other strategy
+	 */
+	protected void play(int first, int second){
+		final Warmup warmup = this.warmup;
+		StrategyClassLoader loader = null;
+		Player one = null, two = null;
+		Game game = null;
+		int violations = 0;
+		try{
+			if(loaders != null) loader = loaders.acquire();
+			one = new Player(strategies[first], newStrategy(loader, first, warmup));
+			two = new Player(strategies[second], newStrategy(loader, second, warmup));
+			game = new Game(new Board(), one, two, timeout, numWinningRounds, skipLimit, skipPenalty);
+			game.setCpuTimeAccounting(cpuTimeAccounting);
+			game.setAllocationLimit(allocationLimit);
+			if(warmup != null){
+				warmup.warmUp(one.getStrategy(), game);
+				warmup.warmUp(two.getStrategy(), game);
+			}
+			violations = game.getWatchdog().countViolations(strategies[first]) + game.getWatchdog().countViolations(strategies[second]);
+			game.run();
+			synchronized(this){
+				cpuTimes[first] += one.getCpuTime();
+				cpuTimes[second] += two.getCpuTime();
+				allocations[first] += one.getAllocatedBytes();
+				allocations[second] += two.getAllocatedBytes();
+			}
+			if(one.countWin() < numWinningRounds && two.countWin() < numWinningRounds) return; // interrupted
+			final int winner = one.countWin() >= numWinningRounds ? first : second;
+			synchronized(this){
+				wins[winner][winner == first ? second : first]++;
+				played[first][second]++;
+				played[second][first]++;
+			}
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}catch(ReflectiveOperationException e){
+			throw new IllegalArgumentException("Cannot instantiate the strategies " + strategies[first] + " and " + strategies[second], e);
+		}finally{
+			if(warmup != null && game != null && !Thread.currentThread().isInterrupted()
+				  && violations == game.getWatchdog().countViolations(strategies[first]) + game.getWatchdog().countViolations(strategies[second])){
+				if(!(one.getStrategy() instanceof BatchCoordinator)) pool.release(one.getStrategy());
+				if(!(two.getStrategy() instanceof BatchCoordinator)) pool.release(two.getStrategy());
+			}
+			if(loader != null) loaders.release(loader);
+		}
+	}
+
+	private Strategy newStrategy(StrategyClassLoader loader, int strategy, Warmup warmup) throws ReflectiveOperationException{
+		final BatchCoordinator coordinator = coordinators[strategy];
+		if(coordinator != null) return coordinator;
+		if(warmup != null) return pool.acquire(loader, strategies[strategy]);
+		return StrategyPool.newStrategy(loader, strategies[strategy]);
+	}
+
+	/**
+	 * Count the number of strategies
+	 *
+	 * @return the number of strategies
+	 */
+	public int countStrategies(){
+		return strategies.length;
+	}
+
+	/**
+	 * Get the class name of a strategy
+	 *
+	 * @param strategy the index of the strategy
+	 * @return the class name
+	 */
+	public String getStrategy(int strategy){
+		return strategies[strategy];
+	}
+
+	/**
+	 * Count the games won by a strategy against another
+	 *
+	 * @param strategy the index of the strategy
+	 * @param opponent the index of the opponent
+	 * @return the number of won games
+	 */
+	public synchronized int countWin(int strategy, int opponent){
+		return wins[strategy][opponent];
+	}
+
+	/**
+	 * Count the games won by a strategy
+	 *
+	 * @param strategy the index of the strategy
+	 * @return the number of won games
+	 */
+	public synchronized int countWin(int strategy){
+		int total = 0;
+		for(int win : wins[strategy]) total += win;
+		return total;
+	}
+
+	/**
+	 * Count the finished games between two strategies
+	 *
+	 * @param strategy the index of the strategy
+	 * @param opponent the index of the opponent
+	 * @return the number of finished games
+	 */
+	public synchronized int countGames(int strategy, int opponent){
+		return played[strategy][opponent];
+	}
+
+	/**
+	 * Get the total CPU time consumed by a strategy during its turns (see {@link Player#getCpuTime()}), and by its batches (see {@link BatchCoordinator#getCpuTime()})
+	 *
+	 * @param strategy the index of the strategy
+	 * @return the CPU time in nanoseconds
+	 */
+	public synchronized long getCpuTime(int strategy){
+		return cpuTimes[strategy];
+	}
+
+	/**
+	 * Get the total memory allocated by a strategy during its turns (see {@link Player#getAllocatedBytes()}), and by its batches (see {@link BatchCoordinator#getAllocatedBytes()})
+	 *
+	 * @param strategy the index of the strategy
+	 * @return the allocated memory in bytes
+	 */
+	public synchronized long getAllocatedBytes(int strategy){
+		return allocations[strategy];
+	}
+
+	/**
+	 * Count the games that failed (a strategy could not be instantiated)
+	 *
+	 * @return the number of failed games
+	 */
+	public synchronized int countFailures(){
+		return failures;
+	}
+
+	/**
+	 * Play a tournament and print the won games of each strategy against each other
+	 *
+	 * @param args the number of games per pair, the number of threads, then the class names of the strategies
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException{
+		if(args.length < 4) throw new IllegalArgumentException("Usage: Tournament <games> <threads> <strategy> <strategy>...");
+		final String[] strategies = new String[args.length - 2];
+		System.arraycopy(args, 2, strategies, 0, strategies.length);
+		final int threads = Integer.parseInt(args[1]);
+		final StrategyLoaderPool loaders = new StrategyLoaderPool(threads);
+		final Tournament tournament = new Tournament(strategies, Integer.parseInt(args[0]), threads, loaders, Game.DEFAULT_TIMEOUT,
+			  Game.DEFAULT_NUMBER_OF_WINNING_ROUNDS, Game.DEFAULT_SKIP_LIMIT, Game.DEFAULT_SKIP_PENALTY);
+		tournament.setCpuTimeAccounting(threads > 1);
+		tournament.setWarmup(Warmup.DEFAULT_POSITIONS);
+		tournament.setBatching(true);
+		tournament.run();
+		loaders.close();
+		for(int i = 0; i < strategies.length; i++){
+			final StringBuilder line = new StringBuilder(strategies[i]).append(':');
+			for(int j = 0; j < strategies.length; j++){
+				line.append(' ').append(i == j ? "-" : tournament.countWin(i, j) + "/" + tournament.countGames(i, j));
+			}
+			line.append(" = ").append(tournament.countWin(i));
+			line.append(" (").append(tournament.getCpuTime(i) / 1000000).append(" ms CPU, ");
+			System.out.println(line.append(tournament.getAllocatedBytes(i) >> 20).append(" MiB allocated)"));
+		}
+	}
+}
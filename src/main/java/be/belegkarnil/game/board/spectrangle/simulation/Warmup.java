@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.event.TurnAdapter;
+import be.belegkarnil.game.board.spectrangle.event.TurnEvent;
+import be.belegkarnil.game.board.spectrangle.strategy.RandomStrategy;
+import be.belegkarnil.game.board.spectrangle.strategy.Strategy;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class warms up strategy instances before their first timed turn: each strategy thinks on throwaway positions, so that the JIT
+ * compiles its code and its caches are filled before the clock runs.
+ * The positions are the turns of scratch games between two {@link RandomStrategy} players, with the settings of the real game. The
+ * strategy is registered in the scratch games (not in the real one) and thinks on some turns of the first player, its turns are
+ * neither timed nor accounted, and its search of each position is interrupted after {@link Warmup#SLICE} milliseconds.
+ * An instance is warmed up once by a warm-up, so that the instances reused across games (see {@link StrategyPool}) are warmed up once.
+ * The strategies that are not warmable (see {@link Strategy#isWarmable()}) are skipped.
+ *
+ * @author Belegkarnil
+ */
+public class Warmup{
+	/**
+	 * is the default number of throwaway positions per strategy
+	 */
+	public static final int DEFAULT_POSITIONS = 20;
+	/**
+	 * is the time (in milliseconds) after which the search of a throwaway position is interrupted
+	 */
+	public static final long SLICE = 250;
+
+	private static final int MAX_TURNS = 4 * Rules.CELLS; // a round of random moves may never end (see BatchSimulator#countStalemates())
+
+	private final int positions;
+	// the instances already warmed up, weakly referenced so that the discarded instances are garbage collected
+	private final Set<Strategy> warmed;
+
+	/**
+	 * Construct a warm-up
+	 *
+	 * @param positions the number of throwaway positions per strategy
+	 */
+	public Warmup(int positions){
+		if(positions < 1) throw new IllegalArgumentException("The number of warm-up positions must be strictly positive");
+		this.positions = positions;
+		this.warmed = Collections.newSetFromMap(new WeakHashMap<Strategy, Boolean>());
+	}
+
+	/**
+	 * Get the number of throwaway positions per strategy
+	 *
+	 * @return the number of positions
+	 */
+	public int getPositions(){
+		return positions;
+	}
+
+	/**
+	 * Know if a strategy instance is already warmed up by this warm-up
+	 *
+	 * @param strategy the instance
+	 * @return true iff the instance is warmed up (or being warmed up)
+	 */
+	public boolean isWarmed(Strategy strategy){
+		synchronized(warmed){
+			return warmed.contains(strategy);
+		}
+	}
+
+	/**
+	 * Warm up a strategy instance before a game, unless it is already warmed up or it is not warmable.
+	 * The scratch games run on their own thread, this method returns once the positions are played.
+	 *
+	 * @param strategy the instance
+	 * @param game     the game that the strategy is about to play, for its settings
+	 * @throws InterruptedException if the thread is interrupted, the warm-up is stopped
+	 */
+	public void warmUp(final Strategy strategy, final Game game) throws InterruptedException{
+		if(!strategy.isWarmable()) return;
+		synchronized(warmed){
+			if(!warmed.add(strategy)) return;
+		}
+		final ExecutorService executor = Executors.newSingleThreadExecutor(daemon("Warm-up-" + strategy.getClass().getSimpleName()));
+		final Future<?> future = executor.submit(new Runnable(){
+			@Override
+			public void run(){
+				play(strategy, game);
+			}
+		});
+		try{
+			future.get();
+		}catch(ExecutionException e){
+			e.getCause().printStackTrace();
+		}finally{
+			future.cancel(true);
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * Play scratch games until the strategy has thought on the positions, the thread is interrupted to stop the current game
+	 */
+	private void play(final Strategy strategy, Game game){
+		final Random random = new Random();
+		final Strategy mine = new RandomStrategy(), others = new RandomStrategy();
+		final TurnAdapter listener = new TurnAdapter(){
+			private int thought = 0;
+
+			@Override
+			public void onTurnBegins(TurnEvent event){
+				if(thought >= positions || event.turn >= MAX_TURNS){
+					Thread.currentThread().interrupt();
+				}else if(event.current.getStrategy() == mine && random.nextBoolean()){
+					thought++;
+					try{
+						if(!think(strategy, event.current, event.game.getBoard(), event.opponent)) thought = positions;
+					}catch(InterruptedException e){
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		};
+		while(!Thread.currentThread().isInterrupted()){
+			final Game scratch = new Game(new Board(game.getBoard().getSize()), new Player("Warm-up", mine), new Player("Opponent", others),
+				  game.getTimeout(), 1, game.getSkipLimit(), game.getSkipPenalty());
+			scratch.addTurnListener(listener);
+			strategy.register(scratch);
+			try{
+				scratch.run();
+			}finally{
+				strategy.unregister(scratch);
+			}
+		}
+	}
+
+	/**
+	 * Let a strategy search a throwaway position during at most {@link Warmup#SLICE} milliseconds
+	 *
+	 * @return false if the warm-up of the strategy must stop (it fails or it ignores the interruption)
+	 * @throws InterruptedException if the warm-up is interrupted
+	 */
+	private static boolean think(final Strategy strategy, final Player myself, final Board board, final Player opponent) throws InterruptedException{
+		final ExecutorService executor = Executors.newSingleThreadExecutor(daemon("Warm-up-" + strategy.getClass().getSimpleName() + "-search"));
+		final Future<Action> future = executor.submit(new Callable<Action>(){
+			@Override
+			public Action call(){
+				return strategy.plays(myself, board, opponent);
+			}
+		});
+		try{
+			future.get(SLICE, TimeUnit.MILLISECONDS);
+			return true;
+		}catch(TimeoutException e){
+			executor.shutdownNow();
+			return executor.awaitTermination(SLICE, TimeUnit.MILLISECONDS);
+		}catch(ExecutionException e){
+			return false; // the failure is reported by the timed turns
+		}finally{
+			executor.shutdownNow();
+		}
+	}
+
+	private static ThreadFactory daemon(final String name){
+		return new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable runnable){
+				final Thread thread = new Thread(runnable, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+}
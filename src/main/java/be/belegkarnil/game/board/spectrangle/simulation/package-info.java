@@ -0,0 +1,9 @@
+/**
+ * Contains compact, allocation-free representations of the Spectrangle rules and the simulators built on them, and the tournaments
+ * between strategies with their class loading isolation and the batching of their turns.
+ *
+ * @author Belegkarnil
+ * @version 0.9
+ * @since 2025-04-22
+ */
+package be.belegkarnil.game.board.spectrangle.simulation;
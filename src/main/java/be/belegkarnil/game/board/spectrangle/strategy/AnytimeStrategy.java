@@ -0,0 +1,409 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.strategy;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.event.TurnAdapter;
+import be.belegkarnil.game.board.spectrangle.event.TurnDelta;
+import be.belegkarnil.game.board.spectrangle.event.TurnEvent;
+import be.belegkarnil.game.board.spectrangle.event.TurnListener;
+import be.belegkarnil.game.board.spectrangle.search.EndgameSolver;
+import be.belegkarnil.game.board.spectrangle.search.OpeningBook;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This abstract {@link Strategy} handles the deadline of a search that can be stopped at any time.
+ * {@link AnytimeStrategy#plays(Player, Board, Player)} loads the round into a {@link Position}, asks an initial move to
+ * {@link AnytimeStrategy#begin(Position, long)}, then runs {@link AnytimeStrategy#iterate(int, long)} with an increasing iteration number
+ * (e.g. the depth) on a background thread and keeps the move of the last completed iteration.
+ * The best move so far is returned a margin before the timeout of the {@link Game} (see {@link Game#getTimeout()}), so that the
+ * {@link Game} never cancels the turn and never turns a good search into a skip.
+ * The first move of a round is read from the default {@link OpeningBook} when one is given (see {@link OpeningBook#PROPERTY}).
+ * If the subclass opts in, a round whose bag is empty is first solved exactly by an {@link EndgameSolver}.
+ * While the opponent thinks, the background thread calls {@link AnytimeStrategy#ponder(Position)} (see {@link TurnListener}), and the
+ * move actually played by the opponent is then available through {@link AnytimeStrategy#getOpponentMove()} so that the next search
+ * can reuse what was pondered.
+ * Subclasses must check {@link AnytimeStrategy#isStopped()} frequently.
+ *
+ * @author Belegkarnil
+ */
+public abstract class AnytimeStrategy extends StrategyAdapter{
+	/**
+	 * is the default time (in milliseconds) kept between the end of the search and the timeout of the game
+	 */
+	public static final long DEFAULT_MARGIN = 500;
+
+	private final long margin;
+	private final boolean solveEndgame;
+	private final Object lock;
+	private final TurnListener listener;
+	private volatile Game game;
+	private volatile boolean stopped;
+	private ExecutorService worker;
+	private EndgameSolver solver;
+	private int best, depth;
+	private int pondering; // the number of the last pondering requested or cancelled, guarded by the lock
+	private volatile int opponentMove;
+	private boolean running;
+
+	/**
+	 * Initialize the AnytimeStrategy
+	 *
+	 * @param margin       the time (in milliseconds) kept between the end of the search and the timeout of the game
+	 * @param solveEndgame true iff the rounds with an empty bag are solved by an {@link EndgameSolver}
+	 */
+	protected AnytimeStrategy(long margin, boolean solveEndgame){
+		if(margin < 0) throw new IllegalArgumentException("The margin must be positive");
+		this.margin = margin;
+		this.solveEndgame = solveEndgame;
+		this.lock = new Object();
+		this.stopped = true;
+		this.running = false;
+		this.best = Position.NO_MOVE;
+		this.depth = 0;
+		this.opponentMove = Position.NO_MOVE;
+		this.listener = new TurnAdapter(){
+			@Override
+			public void onTurnBegins(TurnEvent event){
+				if(isOpponentTurn(event)) startPondering(event);
+			}
+
+			@Override
+			public void onTurnEnds(TurnEvent event){
+				if(isOpponentTurn(event)){
+					synchronized(lock){
+						stopped = true;
+						pondering++; // a pondering not started yet is dropped
+					}
+					opponentMove = toMove(event.delta);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Get the time kept between the end of the search and the timeout of the game
+	 *
+	 * @return the margin in milliseconds
+	 */
+	public long getMargin(){
+		return margin;
+	}
+
+	/**
+	 * Get the number of iterations completed during the last turn
+	 *
+	 * @return the last completed iteration, 0 if only the initial move was available
+	 */
+	public int getDepth(){
+		synchronized(lock){
+			return depth;
+		}
+	}
+
+	/**
+	 * Get the game the strategy is registered to
+	 *
+	 * @return the game or null if the strategy plays outside of a {@link Game}
+	 */
+	protected Game getGame(){
+		return game;
+	}
+
+	/**
+	 * Know if the search of the current turn must stop (the deadline is reached or the strategy is unregistered)
+	 *
+	 * @return true iff the search must stop as soon as possible
+	 */
+	protected boolean isStopped(){
+		return stopped || Thread.currentThread().isInterrupted();
+	}
+
+	/**
+	 * Get the move played by the opponent during the previous turn
+	 *
+	 * @return the move, or {@link Position#NO_MOVE} if unknown (e.g. the first turn of a game)
+	 */
+	protected int getOpponentMove(){
+		return opponentMove;
+	}
+
+	/**
+	 * Think while the opponent plays. This method is called by the background thread when the turn of the opponent begins, once the
+	 * previous search has stopped, and must return as soon as {@link AnytimeStrategy#isStopped()}. The default implementation does not ponder.
+	 *
+	 * @param position the current round, myself is the side 0 and the opponent (side 1) has to play
+	 */
+	protected void ponder(Position position){
+	}
+
+	/**
+	 * Prepare the search of a new turn, this method is called by the thread of the turn before any iteration
+	 *
+	 * @param root     the current round, myself is the side 0 and has to play
+	 * @param deadline the time (see {@link System#nanoTime()}) at which the best move is returned
+	 * @return a valid move, played if no iteration completes
+	 */
+	protected abstract int begin(Position root, long deadline);
+
+	/**
+	 * Search the round again, deeper (or longer) than the previous iteration. This method is called by the background thread.
+	 *
+	 * @param iteration the iteration number, from 1
+	 * @param deadline  the time (see {@link System#nanoTime()}) at which the best move is returned
+	 * @return the best move found by this iteration, or {@link Position#NO_MOVE} if it was stopped before completion
+	 */
+	protected abstract int iterate(int iteration, long deadline);
+
+	/**
+	 * Know if more iterations would be useless (a single move, a decided round, ...). This method is called after
+	 * {@link AnytimeStrategy#begin(Position, long)} and after each completed iteration.
+	 *
+	 * @return true iff the search can stop
+	 */
+	protected boolean isComplete(){
+		return false;
+	}
+
+	/**
+	 * Override the {@link Strategy#register(Game)} and remember the game in order to know its timeout and rules.
+	 * Subclasses must call this method.
+	 *
+	 * @param game see {@link Strategy#register(Game)}
+	 */
+	@Override
+	public void register(Game game){
+		this.game = game;
+		this.opponentMove = Position.NO_MOVE;
+		game.addTurnListener(listener);
+	}
+
+	/**
+	 * Override the {@link Strategy#unregister(Game)}, stop the search and its thread.
+	 * Subclasses must call this method.
+	 *
+	 * @param game see {@link Strategy#unregister(Game)}
+	 */
+	@Override
+	public void unregister(Game game){
+		game.removeTurnListener(listener);
+		this.game = null;
+		this.stopped = true;
+		synchronized(lock){
+			if(worker != null){
+				worker.shutdownNow();
+				worker = null;
+			}
+		}
+	}
+
+	/**
+	 * Override the {@link Strategy#plays(Player, Board, Player)} and search until the margin before the timeout
+	 *
+	 * @param myself   see {@link Strategy#plays}
+	 * @param board    see {@link Strategy#plays}
+	 * @param opponent see {@link Strategy#plays}
+	 * @return the move of the last completed iteration, or the initial move
+	 */
+	@Override
+	public final Action plays(Player myself, Board board, Player opponent){
+		final long start = System.nanoTime();
+		final Game game = this.game;
+		final Position root = new Position();
+		int timeout = Game.DEFAULT_TIMEOUT;
+		if(game != null){
+			root.load(game, myself, board, opponent);
+			timeout = game.getTimeout();
+		}else{
+			root.load(myself, board, opponent);
+		}
+		long budget = timeout * 1000000000L - margin * 1000000L;
+		if(game != null && game.isCpuTimeAccounting()) budget /= countThreads(); // the CPU time of all the threads is accounted
+		final long deadline = start + budget;
+
+		try{
+			awaitWorker();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			return Position.toAction(GreedyStrategy.select(root));
+		}
+
+		final OpeningBook book = OpeningBook.getDefault();
+		if(book != null){
+			final int move = book.lookup(root);
+			if(move != Position.NO_MOVE) return Position.toAction(move);
+		}
+
+		if(solveEndgame && EndgameSolver.isApplicable(root)){
+			if(solver == null) solver = new EndgameSolver();
+			final int move = solver.solve(root, start + (deadline - start) / 2);
+			if(move != Position.NO_MOVE) return Position.toAction(move);
+		}
+
+		stopped = false;
+		final int initial = begin(root, deadline);
+		synchronized(lock){
+			best = initial;
+			depth = 0;
+			if(isComplete()) return Position.toAction(best);
+			running = true;
+			getWorker().execute(new Runnable(){
+				@Override
+				public void run(){
+					search(deadline);
+				}
+			});
+			try{
+				long remaining = deadline - System.nanoTime();
+				while(running && remaining > 0){
+					TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+					remaining = deadline - System.nanoTime();
+				}
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			stopped = true;
+			return Position.toAction(best);
+		}
+	}
+
+	private boolean isOpponentTurn(TurnEvent event){
+		return event.current.getStrategy() != this && event.opponent.getStrategy() == this;
+	}
+
+	private static int toMove(TurnDelta delta){
+		if(delta == TurnEvent.NO_DELTA) return Position.NO_MOVE;
+		if(delta.isReplace()) return Position.swap(delta.piece.ordinal());
+		if(delta.isPiecePlayed()) return Position.move(delta.piece.ordinal(), Rules.cellOf(delta.x, delta.y), delta.rotation);
+		return Position.SKIP;
+	}
+
+	private void startPondering(TurnEvent event){
+		final Game game = event.game;
+		if(game.getBoard().getSize() != Rules.SIZE) return;
+		final Position position = new Position();
+		position.load(game, event.opponent, game.getBoard(), event.current);
+		position.setSide(1);
+		opponentMove = Position.NO_MOVE;
+		synchronized(lock){
+			if(this.game == null) return; // unregistered
+			// the game thread does not wait for the previous search: the worker runs the pondering after it
+			stopped = true;
+			final int request = ++pondering;
+			getWorker().execute(new Runnable(){
+				@Override
+				public void run(){
+					synchronized(lock){
+						if(request != pondering || AnytimeStrategy.this.game == null) return; // the turn of the opponent ended meanwhile
+						stopped = false;
+						running = true;
+					}
+					try{
+						ponder(position);
+					}catch(RuntimeException e){
+						e.printStackTrace();
+					}finally{
+						synchronized(lock){
+							running = false;
+							lock.notifyAll();
+						}
+					}
+				}
+			});
+		}
+	}
+
+	private void awaitWorker() throws InterruptedException{
+		synchronized(lock){
+			stopped = true;
+			pondering++;
+			while(running) lock.wait();
+		}
+	}
+
+	private ExecutorService getWorker(){
+		if(worker == null){
+			worker = Executors.newSingleThreadExecutor(newThreadFactory("search"));
+		}
+		return worker;
+	}
+
+	/**
+	 * Create the factory of the threads of the strategy: the threads of the registered game are accounted in the turns of the strategy
+	 * (see {@link Game#getThreadFactory(Strategy)}), the others are daemon threads
+	 *
+	 * @param name the name of the threads
+	 * @return the factory
+	 */
+	protected ThreadFactory newThreadFactory(final String name){
+		final Game game = this.game;
+		if(game != null) return game.getThreadFactory(this);
+		return new ThreadFactory(){
+			private int counter = 0;
+
+			@Override
+			public synchronized Thread newThread(Runnable runnable){
+				final Thread thread = new Thread(runnable, AnytimeStrategy.this.getClass().getSimpleName() + "-" + name + "-" + (counter++));
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * Get the number of threads that search in parallel, the budget of a turn accounted in CPU time is shared by them
+	 * (see {@link Game#setCpuTimeAccounting(boolean)})
+	 *
+	 * @return the number of threads, 1 by default
+	 */
+	public int countThreads(){
+		return 1;
+	}
+
+	private void search(long deadline){
+		try{
+			for(int iteration = 1; !isStopped() && System.nanoTime() < deadline; iteration++){
+				final int move = iterate(iteration, deadline);
+				if(move == Position.NO_MOVE) break;
+				synchronized(lock){
+					best = move;
+					depth = iteration;
+				}
+				if(isComplete()) break;
+			}
+		}catch(RuntimeException e){
+			e.printStackTrace();
+		}finally{
+			synchronized(lock){
+				running = false;
+				lock.notifyAll();
+			}
+		}
+	}
+}
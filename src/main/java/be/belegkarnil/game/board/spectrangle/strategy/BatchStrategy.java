@@ -0,0 +1,49 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.strategy;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+
+/**
+ * This interface represents a strategy that decides many independent positions at once, e.g. a vectorized evaluation or a lookup table
+ * whose cost is amortized over a batch.
+ * A {@link Game} still calls {@link Strategy#plays(Player, Board, Player)} for a single position, the batches are built by a coordinator
+ * that groups the pending turns of concurrent games (see {@link be.belegkarnil.game.board.spectrangle.simulation.BatchCoordinator}).
+ * A single instance is then registered in all the concurrent games (see {@link Strategy#register(Game)}), so that the state of a game
+ * must be kept by game, not by instance.
+ *
+ * @author Belegkarnil
+ */
+public interface BatchStrategy extends Strategy{
+
+	/**
+	 * The method represents the choices made by the strategy for independent positions, each of them from a different game.
+	 * The position i is made of myself[i], boards[i], and opponents[i], as in {@link Strategy#plays(Player, Board, Player)}.
+	 *
+	 * @param myself    The current players that play the strategy
+	 * @param boards    The current board status of each position
+	 * @param opponents The opponent players
+	 * @return The actions to play, one per position and in the same order
+	 */
+	public Action[] plays(Player[] myself, Board[] boards, Player[] opponents);
+}
@@ -0,0 +1,284 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.strategy;
+
+import be.belegkarnil.game.board.spectrangle.search.EndgameSolver;
+import be.belegkarnil.game.board.spectrangle.search.Symmetry;
+import be.belegkarnil.game.board.spectrangle.search.TranspositionTable;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+/**
+ * This {@link Strategy} represents an expectimax search of the current round.
+ * The players alternate max nodes (in negamax form) and each placement or swap is followed by a chance node: the piece drawn from the bag,
+ * each unseen piece being equally likely.
+ * Chance nodes are pruned with the Star1 (bounds of the evaluation) and Star2 (probing a single move of each outcome) algorithms,
+ * so that the search goes deeper than a plain expectimax.
+ * Each iteration of the {@link AnytimeStrategy} searches one ply deeper, the best move of each decision node is kept in a
+ * {@link TranspositionTable} (one entry per class of symmetric positions, see {@link Symmetry}) and searched first by the next iteration.
+ * The evaluation is the score difference, bounded by {@link ExpectimaxStrategy#WIN} which is the value of a won round.
+ * Once the bag is empty, the round is solved exactly by an {@link EndgameSolver} if possible within half of the time.
+ *
+ * @author Belegkarnil
+ */
+public class ExpectimaxStrategy extends AnytimeStrategy{
+	/**
+	 * is the value of a won round, the evaluation always lies in [-WIN, WIN]
+	 */
+	public static final int WIN = 1000;
+
+	private static final int MAX_DEPTH = 32;
+	private static final int CHECK_INTERVAL = 1023;
+	private static final int TABLE_BITS = 18;
+
+	private final Position[] positions;
+	private final int[][] moves;
+	private final int[][] keys;
+	private final int[][] outcomes;
+	private final double[][] bounds;
+	private final TranspositionTable table;
+	private long deadline, nodes;
+	private boolean aborted, complete;
+	private int count;
+
+	/**
+	 * Initialize the ExpectimaxStrategy with the {@link AnytimeStrategy#DEFAULT_MARGIN}
+	 */
+	public ExpectimaxStrategy(){
+		this(DEFAULT_MARGIN);
+	}
+
+	/**
+	 * Initialize the ExpectimaxStrategy
+	 *
+	 * @param margin the time (in milliseconds) kept between the end of the search and the timeout of the game
+	 */
+	public ExpectimaxStrategy(long margin){
+		this(margin, new TranspositionTable(TABLE_BITS));
+	}
+
+	/**
+	 * Initialize the ExpectimaxStrategy with a transposition table that may be shared with other searches
+	 *
+	 * @param margin the time (in milliseconds) kept between the end of the search and the timeout of the game
+	 * @param table  the transposition table
+	 */
+	public ExpectimaxStrategy(long margin, TranspositionTable table){
+		super(margin, true);
+		if(table == null) throw new NullPointerException("The table cannot be null");
+		this.table = table;
+		final int plies = 2 * MAX_DEPTH + 2;
+		this.positions = new Position[plies];
+		this.moves = new int[plies][Position.MAX_MOVES];
+		this.keys = new int[plies][Position.MAX_MOVES];
+		this.outcomes = new int[plies][Rules.PIECES];
+		this.bounds = new double[plies][Rules.PIECES];
+		for(int i = 0; i < plies; i++) positions[i] = new Position();
+	}
+
+	/**
+	 * Override the {@link AnytimeStrategy#begin(Position, long)} and order the moves of the root by immediate score
+	 *
+	 * @param root     see {@link AnytimeStrategy#begin(Position, long)}
+	 * @param deadline see {@link AnytimeStrategy#begin(Position, long)}
+	 * @return the move with the highest immediate score
+	 */
+	@Override
+	protected int begin(Position root, long deadline){
+		table.newSearch();
+		positions[0].copy(root);
+		count = positions[0].generateAll(moves[0]);
+		order(positions[0], moves[0], keys[0], count);
+		complete = count == 1;
+		return moves[0][0];
+	}
+
+	/**
+	 * Override the {@link AnytimeStrategy#iterate(int, long)} and search the moves of the root at a depth of iteration plies
+	 *
+	 * @param iteration see {@link AnytimeStrategy#iterate(int, long)}
+	 * @param deadline  see {@link AnytimeStrategy#iterate(int, long)}
+	 * @return see {@link AnytimeStrategy#iterate(int, long)}
+	 */
+	@Override
+	protected int iterate(int iteration, long deadline){
+		this.deadline = deadline;
+		this.aborted = false;
+		this.nodes = 0;
+		final Position root = positions[0];
+		final int[] rootMoves = moves[0];
+		double alpha = -WIN;
+		int best = Position.NO_MOVE;
+		for(int i = 0; i < count; i++){
+			final double value = afterMove(root, rootMoves[i], iteration, alpha, WIN, 0);
+			if(aborted) return Position.NO_MOVE;
+			if(best == Position.NO_MOVE || value > alpha){
+				alpha = value;
+				best = rootMoves[i];
+			}
+		}
+		// search the best move first at the next iteration
+		first(rootMoves, count, best);
+		complete = alpha >= WIN || alpha <= -WIN || iteration >= MAX_DEPTH; // the round is decided
+		return best;
+	}
+
+	/**
+	 * Override the {@link AnytimeStrategy#isComplete()}
+	 *
+	 * @return true iff there is a single move, the round is decided, or the maximum depth is reached
+	 */
+	@Override
+	protected boolean isComplete(){
+		return complete;
+	}
+
+	private boolean isTimeOver(){
+		if((++nodes & CHECK_INTERVAL) == 0 && (System.nanoTime() > deadline || isStopped())) aborted = true;
+		return aborted;
+	}
+
+	private static double evaluate(Position position){
+		if(position.isRoundOver()) return position.getWinner() == position.getSide() ? WIN : -WIN;
+		final int side = position.getSide();
+		final int difference = position.getScore(side) - position.getScore(side ^ 1);
+		return Math.max(1 - WIN, Math.min(WIN - 1, difference));
+	}
+
+	private double negamax(Position position, int depth, double alpha, double beta, int ply){
+		if(isTimeOver()) return 0;
+		if(depth == 0 || position.isRoundOver()) return evaluate(position);
+
+		final int[] list = moves[ply];
+		final int count = position.generateAll(list);
+		order(position, list, keys[ply], count);
+		final int transform = Symmetry.canonical(position);
+		final long key = Symmetry.hash(position, transform);
+		final long entry = table.probe(key);
+		if(entry != TranspositionTable.MISS){
+			final int move = TranspositionTable.moveOf(entry);
+			if(move != Position.NO_MOVE) first(list, count, Symmetry.move(Symmetry.inverse(transform), move));
+		}
+
+		final double original = alpha;
+		double best = -WIN;
+		int bestMove = list[0];
+		for(int i = 0; i < count; i++){
+			final double value = afterMove(position, list[i], depth, alpha, beta, ply);
+			if(aborted) return 0;
+			if(value > best){
+				best = value;
+				bestMove = list[i];
+				if(value > alpha){
+					alpha = value;
+					if(alpha >= beta) break;
+				}
+			}
+		}
+		// the score is rounded, so the entry only orders the moves
+		final int bound = best <= original ? TranspositionTable.UPPER : (best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT);
+		table.store(key, (int) Math.round(best), depth, bound, Symmetry.move(transform, bestMove));
+		return best;
+	}
+
+	private static void first(int[] list, int count, int move){
+		for(int i = 1; i < count; i++){
+			if(list[i] == move){
+				System.arraycopy(list, 0, list, 1, i);
+				list[0] = move;
+				return;
+			}
+		}
+	}
+
+	/*
+	 * The value of a move for the side that plays it, the chance node of the draw is expanded unless the bag is empty or the
+	 * evaluation follows (the evaluation does not depend on the hands while the bag is not empty).
+	 */
+	private double afterMove(Position position, int move, int depth, double alpha, double beta, int ply){
+		final Position child = positions[ply + 1];
+		final long bag = position.getBag();
+		if(move == Position.SKIP || bag == 0 || depth == 1){
+			child.copy(position);
+			child.play(move, Rules.NONE);
+			return -negamax(child, depth - 1, -beta, -alpha, ply + 1);
+		}
+
+		final int[] pieces = outcomes[ply];
+		final double[] upper = bounds[ply];
+		int n = 0;
+		for(long bits = bag; bits != 0; bits &= bits - 1) pieces[n++] = Long.numberOfTrailingZeros(bits);
+
+		// Star2: the opponent plays at least as well as its first move, which bounds each outcome from above
+		double remaining = 0;
+		for(int i = 0; i < n; i++){
+			child.copy(position);
+			child.play(move, pieces[i]);
+			upper[i] = probe(child, depth - 1, ply + 1);
+			if(aborted) return 0;
+			remaining += upper[i];
+		}
+		if(remaining <= n * alpha) return remaining / n;
+
+		// Star1: the outcomes not searched yet lie in [-WIN, upper]
+		double sum = 0;
+		for(int i = 0; i < n; i++){
+			remaining -= upper[i];
+			final double low = n * alpha - sum - remaining;
+			final double high = n * beta - sum + (n - i - 1) * WIN;
+			child.copy(position);
+			child.play(move, pieces[i]);
+			final double value = -negamax(child, depth - 1, -Math.min(high, WIN), -Math.max(low, -WIN), ply + 1);
+			if(aborted) return 0;
+			if(value <= low) return (sum + value + remaining) / n;
+			if(value >= high) return (sum + value - (n - i - 1) * WIN) / n;
+			sum += value;
+		}
+		return sum / n;
+	}
+
+	private double probe(Position position, int depth, int ply){
+		if(depth == 0 || position.isRoundOver()) return -evaluate(position);
+		final int[] list = moves[ply];
+		final int count = position.generateAll(list);
+		order(position, list, keys[ply], count);
+		return -afterMove(position, list[0], depth, -WIN, WIN, ply);
+	}
+
+	/*
+	 * Sort the moves by decreasing immediate score (the least flexible piece first for swaps)
+	 */
+	private static void order(Position position, int[] list, int[] key, int count){
+		for(int i = 0; i < count; i++){
+			final int move = list[i];
+			if(Position.isPlacement(move)) key[i] = position.score(Position.pieceOf(move), Position.cellOf(move));
+			else if(Position.isSwap(move)) key[i] = -GreedyStrategy.getFlexibility(Position.pieceOf(move));
+			else key[i] = Integer.MIN_VALUE;
+			for(int j = i; j > 0 && key[j] > key[j - 1]; j--){
+				final int tmpKey = key[j];
+				key[j] = key[j - 1];
+				key[j - 1] = tmpKey;
+				final int tmpMove = list[j];
+				list[j] = list[j - 1];
+				list[j - 1] = tmpMove;
+			}
+		}
+	}
+}
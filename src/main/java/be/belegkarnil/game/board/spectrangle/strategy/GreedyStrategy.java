@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.strategy;
+
+import be.belegkarnil.game.board.spectrangle.Action;
+import be.belegkarnil.game.board.spectrangle.Board;
+import be.belegkarnil.game.board.spectrangle.Piece;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+/**
+ * This {@link Strategy} represents a strategy that plays the valid move with the highest immediate score.
+ * When several moves earn the same score, the least flexible piece is played so that the pieces that match many colors are kept
+ * (see {@link GreedyStrategy#getFlexibility(int)}).
+ * When no move is valid, the least flexible piece is swapped if the bag is not empty and some piece left may still fit on the board,
+ * otherwise the turn is skipped.
+ * The decision is computed on a reusable {@link Position} without allocation, so {@link GreedyStrategy#select(Position)} can also be
+ * used as the playout policy of heavier searches.
+ *
+ * @author Belegkarnil
+ */
+public class GreedyStrategy extends StrategyAdapter{
+	private static final int[] FLEXIBILITY = new int[Rules.PIECES];
+
+	static{
+		for(int piece = 0; piece < Rules.PIECES; piece++){
+			if(piece == Rules.WHITE){
+				FLEXIBILITY[piece] = Integer.MAX_VALUE;
+			}else{
+				int colors = 0;
+				final int code = Rules.code(piece, 0);
+				colors |= 1 << Rules.color(code, Board.BASE_COLOR);
+				colors |= 1 << Rules.color(code, Board.LEFT_COLOR);
+				colors |= 1 << Rules.color(code, Board.RIGHT_COLOR);
+				FLEXIBILITY[piece] = Integer.bitCount(colors);
+			}
+		}
+	}
+
+	private final Position position;
+
+	/**
+	 * Initialize the GreedyStrategy
+	 */
+	public GreedyStrategy(){
+		this.position = new Position();
+	}
+
+	/**
+	 * Get the flexibility of a piece, the number of distinct colors it can match ({@link Piece#WHITE} matches every color)
+	 *
+	 * @param piece the piece ordinal
+	 * @return the flexibility, the higher the more useful the piece is to keep
+	 */
+	public static int getFlexibility(int piece){
+		return FLEXIBILITY[piece];
+	}
+
+	/**
+	 * Select the move of the side that has to play
+	 *
+	 * @param position the current position
+	 * @return the valid placement with the highest score, otherwise a swap of the least flexible piece, otherwise {@link Position#SKIP}
+	 */
+	public static int select(Position position){
+		return select(position, !position.isBagEmpty());
+	}
+
+	/**
+	 * Select the move of the side that has to play
+	 *
+	 * @param position the current position
+	 * @param canSwap  true iff the bag is not empty
+	 * @return the valid placement with the highest score, otherwise a swap of the least flexible piece if canSwap and the position is not a stalemate, otherwise {@link Position#SKIP}
+	 */
+	public static int select(Position position, boolean canSwap){
+		final long hand = position.getHand(position.getSide());
+		if(hand == 0) return Position.SKIP;
+
+		int best = Position.NO_MOVE, bestScore = Integer.MIN_VALUE, bestFlexibility = Integer.MAX_VALUE;
+		for(long frontier = position.getFrontier(); frontier != 0; frontier &= frontier - 1){
+			final int cell = Long.numberOfTrailingZeros(frontier);
+			for(long pieces = hand; pieces != 0; pieces &= pieces - 1){
+				final int piece = Long.numberOfTrailingZeros(pieces);
+				for(int rotation = 0; rotation < Rules.ROTATIONS; rotation++){
+					if(position.canPlace(piece, cell, rotation)){
+						// the score does not depend on the rotation
+						final int score = position.score(piece, cell);
+						if(score > bestScore || (score == bestScore && FLEXIBILITY[piece] < bestFlexibility)){
+							best = Position.move(piece, cell, rotation);
+							bestScore = score;
+							bestFlexibility = FLEXIBILITY[piece];
+						}
+						break;
+					}
+				}
+			}
+		}
+		if(best != Position.NO_MOVE) return best;
+		if(!canSwap || position.isStalemate()) return Position.SKIP;
+		return Position.swap(leastFlexible(hand));
+	}
+
+	private static int leastFlexible(long hand){
+		int worst = Long.numberOfTrailingZeros(hand);
+		for(long pieces = hand & (hand - 1); pieces != 0; pieces &= pieces - 1){
+			final int piece = Long.numberOfTrailingZeros(pieces);
+			if(FLEXIBILITY[piece] < FLEXIBILITY[worst] || (FLEXIBILITY[piece] == FLEXIBILITY[worst] && Rules.value(piece) < Rules.value(worst)))
+				worst = piece;
+		}
+		return worst;
+	}
+
+	/**
+	 * Override the {@link Strategy#plays(Player, Board, Player)} and play the move with the highest immediate score
+	 *
+	 * @param myself   see {@link Strategy#plays}
+	 * @param board    see {@link Strategy#plays}
+	 * @param opponent see {@link Strategy#plays}
+	 * @return the {@link Action} selected by {@link GreedyStrategy#select(Position, boolean)}
+	 */
+	@Override
+	public Action plays(Player myself, Board board, Player opponent){
+		position.load(myself, board, opponent);
+		return Position.toAction(select(position, !board.getBag().isEmpty()));
+	}
+}
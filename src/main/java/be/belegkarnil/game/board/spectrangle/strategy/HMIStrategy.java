@@ -25,25 +25,38 @@ import be.belegkarnil.game.board.spectrangle.Piece;
 import be.belegkarnil.game.board.spectrangle.Player;
 
 import java.awt.Point;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * This class is a special a {@link Strategy} class that is recognized by the GUI. This class allow
  * a human player to select a {@link Piece} and a position {@link Point} in order to play an {@link Action}.
+ * The turn waits (without consuming CPU) for the action of the GUI; an action defined while no turn is waiting, e.g. a late click after
+ * a timeout, is discarded so that it does not play the next turn.
  *
  * @author Belegkarnil
  */
 public class HMIStrategy extends StrategyAdapter{
 	private final Object lock;
-	private Action action;
-	private boolean undefined;
+	private CompletableFuture<Action> pending;
 
 	/**
 	 * Constructs a {@link Strategy} that interact with the GUI
 	 */
 	public HMIStrategy(){
 		lock = new Object();
-		undefined = true;
-		action = null;
+		pending = null;
+	}
+
+	/**
+	 * Know if a turn waits for the action of the GUI
+	 *
+	 * @return true iff the next call to {@link HMIStrategy#setAction(Action)} plays the current turn
+	 */
+	public boolean isWaiting(){
+		synchronized(lock){
+			return pending != null;
+		}
 	}
 
 	/**
@@ -74,14 +87,15 @@ public class HMIStrategy extends StrategyAdapter{
 	}
 
 	/**
-	 * Defines the next action to play
+	 * Defines the action of the waiting turn, the action is discarded if no turn waits (see {@link HMIStrategy#isWaiting()})
 	 *
 	 * @param action the action to play
 	 */
 	public void setAction(Action action){
 		synchronized(lock){
-			this.action = action;
-			undefined = false;
+			if(pending == null) return; // stale
+			pending.complete(action);
+			pending = null;
 		}
 	}
 
@@ -91,23 +105,35 @@ public class HMIStrategy extends StrategyAdapter{
 	 * @param myself   see {@link Strategy#plays}
 	 * @param board    see {@link Strategy#plays}
 	 * @param opponent see {@link Strategy#plays}
-	 * @return The {@link Action} defined by the GUI after calling {@link HMIStrategy#setAction(Action)}
+	 * @return The {@link Action} defined by the GUI after calling {@link HMIStrategy#setAction(Action)}, or null if the turn is interrupted
 	 */
 	@Override
 	public Action plays(Player myself, Board board, Player opponent){
-		Action playing = null;
-		boolean undefined = true;
-		while(undefined){
+		final CompletableFuture<Action> turn = new CompletableFuture<Action>();
+		synchronized(lock){
+			pending = turn;
+		}
+		try{
+			return turn.get();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			return null;
+		}catch(ExecutionException e){
+			return null; // never completed exceptionally
+		}finally{
 			synchronized(lock){
-				undefined = this.undefined;
-				if(!undefined){
-					playing = action;
-					action = null;
-					this.undefined = true;
-				}
+				if(pending == turn) pending = null;
 			}
-			if(undefined) Thread.yield();
 		}
-		return playing;
+	}
+
+	/**
+	 * Override the {@link Strategy#isWarmable()}, a human does not play throwaway positions
+	 *
+	 * @return false
+	 */
+	@Override
+	public boolean isWarmable(){
+		return false;
 	}
 }
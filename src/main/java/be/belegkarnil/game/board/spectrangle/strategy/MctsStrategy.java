@@ -0,0 +1,398 @@
+/*
+ *  Copyright 2025 Belegkarnil
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ *  associated documentation files (the “Software”), to deal in the Software without restriction,
+ *  including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ *  and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ *  so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ *  FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ *  WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ *  CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package be.belegkarnil.game.board.spectrangle.strategy;
+
+import be.belegkarnil.game.board.spectrangle.Game;
+import be.belegkarnil.game.board.spectrangle.Player;
+import be.belegkarnil.game.board.spectrangle.search.EndgameSolver;
+import be.belegkarnil.game.board.spectrangle.simulation.Position;
+import be.belegkarnil.game.board.spectrangle.simulation.Rules;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This {@link Strategy} represents a Monte Carlo Tree Search that maximizes the probability to win the current round.
+ * The only hidden information is the order of the bag (the hand of the opponent is known, see {@link Player#getPieces()}),
+ * so each iteration determinizes the bag by sampling every draw uniformly among the unseen pieces.
+ * The tree is shared by the iterations (information set search): a node is a sequence of moves, its children are the moves that were
+ * available at least once and the selection only considers the moves available in the current determinization.
+ * Playouts follow {@link GreedyStrategy#select(Position, boolean)}.
+ * The iterations run in parallel on a pool of threads sharing the same tree (tree parallelization), a virtual loss keeps the threads
+ * away from the same path.
+ * Each iteration of the {@link AnytimeStrategy} grows the tree for a short slice of time and publishes the most visited move.
+ * While the opponent plays, the tree of the opponent's turn is grown (pondering) and the subtree of the move actually played becomes
+ * the initial tree of the next turn.
+ * Once the bag is empty, the round is solved exactly by an {@link EndgameSolver} if possible within half of the time.
+ *
+ * @author Belegkarnil
+ */
+public class MctsStrategy extends AnytimeStrategy{
+	/**
+	 * is the exploration constant of the UCB formula
+	 */
+	public static final double EXPLORATION = 0.7;
+
+	private static final int VIRTUAL_LOSS = 1;
+	private static final int MAX_PLAYOUT = 256;
+	private static final int MAX_DEPTH = 256;
+	private static final long SLICE = 100000000L; // an iteration lasts at most 100 ms
+	private static final int MAX_PONDER = 1 << 19; // nodes grown while pondering, bounds the memory
+
+	private final int threads;
+	private final SplittableRandom random;
+	private ExecutorService executor;
+	private Search search, ponder;
+	private Position pondered;
+	private int initial;
+	private boolean complete;
+
+	/**
+	 * Initialize the MctsStrategy with a thread per available processor and the {@link AnytimeStrategy#DEFAULT_MARGIN}
+	 */
+	public MctsStrategy(){
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Initialize the MctsStrategy with the {@link AnytimeStrategy#DEFAULT_MARGIN}
+	 *
+	 * @param threads the number of threads that search in parallel
+	 */
+	public MctsStrategy(int threads){
+		this(threads, DEFAULT_MARGIN);
+	}
+
+	/**
+	 * Initialize the MctsStrategy
+	 *
+	 * @param threads the number of threads that search in parallel
+	 * @param margin  the time (in milliseconds) kept between the end of the search and the timeout of the game
+	 */
+	public MctsStrategy(int threads, long margin){
+		super(margin, true);
+		if(threads < 1) throw new IllegalArgumentException("The number of threads must be strictly positive");
+		this.threads = threads;
+		this.random = new SplittableRandom();
+	}
+
+	/**
+	 * Get the number of threads that search in parallel
+	 *
+	 * @return the number of threads
+	 */
+	@Override
+	public int countThreads(){
+		return threads;
+	}
+
+	/**
+	 * Override the {@link Strategy#unregister(Game)} and stop the threads of the search
+	 *
+	 * @param game see {@link Strategy#unregister(Game)}
+	 */
+	@Override
+	public void unregister(Game game){
+		super.unregister(game);
+		synchronized(this){
+			if(executor != null){
+				executor.shutdownNow();
+				executor = null;
+			}
+		}
+	}
+
+	private synchronized ExecutorService getExecutor(){
+		if(executor == null){
+			executor = Executors.newFixedThreadPool(threads, newThreadFactory("tree"));
+		}
+		return executor;
+	}
+
+	/**
+	 * Override the {@link AnytimeStrategy#ponder(Position)} and grow the tree of the opponent's turn until it ends
+	 *
+	 * @param position see {@link AnytimeStrategy#ponder(Position)}
+	 */
+	@Override
+	protected void ponder(Position position){
+		pondered = new Position(position);
+		ponder = null;
+		if(position.isRoundOver()) return;
+		final Search search = new Search(position);
+		ponder = search;
+		while(!isStopped() && search.tree.visits < MAX_PONDER){
+			grow(search, System.nanoTime() + SLICE);
+		}
+	}
+
+	/**
+	 * Override the {@link AnytimeStrategy#begin(Position, long)} and reuse the pondered subtree of the move played by the opponent,
+	 * or create a new tree
+	 *
+	 * @param root     see {@link AnytimeStrategy#begin(Position, long)}
+	 * @param deadline see {@link AnytimeStrategy#begin(Position, long)}
+	 * @return the move of {@link GreedyStrategy}
+	 */
+	@Override
+	protected int begin(Position root, long deadline){
+		final int[] moves = new int[Position.MAX_MOVES];
+		final int count = root.generate(moves);
+		initial = count == 1 ? moves[0] : GreedyStrategy.select(root);
+		complete = count <= 1;
+		search = null;
+		if(!complete){
+			final Node subtree = findPondered(root);
+			search = subtree == null ? new Search(root) : new Search(root, subtree);
+		}
+		ponder = null;
+		pondered = null;
+		return initial;
+	}
+
+	private Node findPondered(Position root){
+		final int move = getOpponentMove();
+		if(ponder == null || move == Position.NO_MOVE) return null;
+		final Position expected = new Position(pondered);
+		expected.play(move, Rules.NONE);
+		if(expected.getSide() != root.getSide() || expected.getPlaced() != root.getPlaced() || expected.getHand(0) != root.getHand(0)) return null;
+		for(int side = 0; side < 2; side++){
+			if(expected.getScore(side) != root.getScore(side) || expected.countSkip(side) != root.countSkip(side)) return null;
+		}
+		for(int cell = 0; cell < Rules.CELLS; cell++){
+			if(expected.getCode(cell) != root.getCode(cell)) return null;
+		}
+		synchronized(ponder.tree){
+			return ponder.tree.get(move);
+		}
+	}
+
+	/**
+	 * Override the {@link AnytimeStrategy#iterate(int, long)} and grow the tree in parallel for a slice of time
+	 *
+	 * @param iteration see {@link AnytimeStrategy#iterate(int, long)}
+	 * @param deadline  see {@link AnytimeStrategy#iterate(int, long)}
+	 * @return the most visited move
+	 */
+	@Override
+	protected int iterate(int iteration, long deadline){
+		grow(search, Math.min(deadline, System.nanoTime() + SLICE));
+		return search.best(initial);
+	}
+
+	private void grow(Search search, long end){
+		final Future<?>[] futures = new Future<?>[threads];
+		final ExecutorService executor = getExecutor();
+		for(int i = 0; i < threads; i++){
+			final SplittableRandom generator = random.split();
+			futures[i] = executor.submit(new Runnable(){
+				@Override
+				public void run(){
+					search.run(generator, end);
+				}
+			});
+		}
+		try{
+			for(Future<?> future : futures) future.get();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}catch(ExecutionException e){
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Override the {@link AnytimeStrategy#isComplete()}
+	 *
+	 * @return true iff there is at most one placement
+	 */
+	@Override
+	protected boolean isComplete(){
+		return complete;
+	}
+
+	private static final class Node{
+		private final int move, side;
+		private int visits, virtual, available;
+		private double wins;
+		private int[] keys;
+		private Node[] children;
+		private int size;
+
+		private Node(int move, int side){
+			this.move = move;
+			this.side = side;
+			this.keys = new int[16];
+			this.children = new Node[16];
+		}
+
+		private Node get(int move){
+			final int mask = keys.length - 1;
+			for(int i = hash(move) & mask; keys[i] != 0; i = (i + 1) & mask){
+				if(keys[i] == move + 1) return children[i];
+			}
+			return null;
+		}
+
+		private Node add(int move, int side){
+			if(2 * (size + 1) > keys.length){
+				final int[] oldKeys = keys;
+				final Node[] oldChildren = children;
+				keys = new int[2 * oldKeys.length];
+				children = new Node[2 * oldKeys.length];
+				for(int i = 0; i < oldKeys.length; i++){
+					if(oldKeys[i] != 0) put(oldChildren[i]);
+				}
+			}
+			final Node child = new Node(move, side);
+			put(child);
+			size++;
+			return child;
+		}
+
+		private void put(Node child){
+			final int mask = keys.length - 1;
+			int i = hash(child.move) & mask;
+			while(keys[i] != 0) i = (i + 1) & mask;
+			keys[i] = child.move + 1;
+			children[i] = child;
+		}
+
+		private static int hash(int move){
+			return move * 0x9E3779B1 >>> 16;
+		}
+
+		private double ucb(){
+			final int n = visits + virtual;
+			return wins / n + EXPLORATION * Math.sqrt(Math.log(available) / n);
+		}
+	}
+
+	private final class Search{
+		private final Position root;
+		private final Node tree;
+
+		private Search(Position root){
+			this(root, new Node(Position.NO_MOVE, root.getSide() ^ 1));
+		}
+
+		private Search(Position root, Node tree){
+			this.root = root;
+			this.tree = tree;
+		}
+
+		private void run(SplittableRandom random, long end){
+			final Position position = new Position();
+			final int[] moves = new int[Position.MAX_MOVES];
+			final Node[] path = new Node[MAX_DEPTH + 1];
+			while(System.nanoTime() < end && !isStopped()){
+				position.copy(root);
+				iterate(position, moves, path, random);
+			}
+		}
+
+		private void iterate(Position position, int[] moves, Node[] path, SplittableRandom random){
+			Node node = tree;
+			int depth = 0;
+			path[depth++] = node;
+			boolean expanded = false;
+			while(!expanded && depth <= MAX_DEPTH && !position.isRoundOver()){
+				final int count = position.generateAll(moves);
+				Node next = null;
+				synchronized(node){
+					int untried = 0;
+					double best = Double.NEGATIVE_INFINITY;
+					for(int i = 0; i < count; i++){
+						final Node child = node.get(moves[i]);
+						if(child == null){
+							moves[untried++] = moves[i];
+						}else{
+							child.available++;
+							final double value = child.ucb();
+							if(value > best){
+								best = value;
+								next = child;
+							}
+						}
+					}
+					if(untried > 0){
+						next = node.add(moves[random.nextInt(untried)], position.getSide());
+						next.available = 1;
+						expanded = true;
+					}
+					next.virtual += VIRTUAL_LOSS;
+				}
+				play(position, next.move, random);
+				path[depth++] = next;
+				node = next;
+			}
+
+			int plies = 0;
+			while(plies < MAX_PLAYOUT && !position.isRoundOver()){
+				play(position, GreedyStrategy.select(position), random);
+				plies++;
+			}
+			final int winner = position.getWinner();
+
+			synchronized(tree){
+				tree.visits++;
+			}
+			for(int i = 1; i < depth; i++){
+				final Node visited = path[i];
+				synchronized(visited){
+					visited.virtual -= VIRTUAL_LOSS;
+					visited.visits++;
+					if(visited.side == winner) visited.wins++;
+				}
+			}
+		}
+
+		private static void play(Position position, int move, SplittableRandom random){
+			int drawn = Rules.NONE;
+			if(move != Position.SKIP){
+				final long bag = position.getBag();
+				if(bag != 0) drawn = Rules.select(bag, random.nextInt(Long.bitCount(bag)));
+			}
+			position.play(move, drawn);
+		}
+
+		private int best(int fallback){
+			int best = fallback, visits = -1;
+			double wins = 0;
+			synchronized(tree){
+				for(Node child : tree.children){
+					if(child == null) continue;
+					synchronized(child){
+						if(child.visits > visits || (child.visits == visits && child.wins > wins)){
+							best = child.move;
+							visits = child.visits;
+							wins = child.wins;
+						}
+					}
+				}
+			}
+			return best;
+		}
+	}
+}
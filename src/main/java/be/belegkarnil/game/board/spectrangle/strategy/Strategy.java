@@ -61,4 +61,15 @@ public interface Strategy{
 	 * @param game the finished game to stop listening events
 	 */
 	public void unregister(Game game);
+
+	/**
+	 * Know if the strategy may play throwaway positions before a game, whose search is interrupted after a short time
+	 * (see {@link be.belegkarnil.game.board.spectrangle.simulation.Warmup}).
+	 * A strategy that does not run in the JVM or that waits for a human gains nothing from it and should return false.
+	 *
+	 * @return true by default
+	 */
+	public default boolean isWarmable(){
+		return true;
+	}
 }